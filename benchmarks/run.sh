@@ -0,0 +1,50 @@
+#!/bin/sh
+# Builds and runs the JMH benchmarks. Run from anywhere, any arguments are
+# passed straight to org.openjdk.jmh.Main, for example:
+#
+#   benchmarks/run.sh MessageBuilderBenchmark -wi 3 -i 5
+#
+# The JMH and Groovy jars are downloaded once into benchmarks/lib from Maven
+# Central, pinned by version and checked against their SHA-1 checksums.
+set -e
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+LIB="$ROOT/benchmarks/lib"
+OUT="$ROOT/benchmarks/out"
+REPOSITORY=https://repo1.maven.org/maven2
+
+fetch() {
+    jar="$LIB/$(basename "$1")"
+    if [ ! -f "$jar" ]; then
+        mkdir -p "$LIB"
+        curl -sSfL -o "$jar.part" "$REPOSITORY/$1"
+        echo "$2  $jar.part" | sha1sum -c - > /dev/null
+        mv "$jar.part" "$jar"
+    fi
+}
+
+fetch org/openjdk/jmh/jmh-core/1.37/jmh-core-1.37.jar 896f27e49105b35ea1964319c83d12082e7a79ef
+fetch org/openjdk/jmh/jmh-generator-annprocess/1.37/jmh-generator-annprocess-1.37.jar da93888682df163144edf9b13d2b78e54166063a
+fetch net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar 4fdac2fbe92dfad86aa6e9301736f6b4342a3f5c
+fetch org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar e4ba98f1d4b3c80ec46392f25e094a6a2e58fcbf
+fetch org/apache/groovy/groovy/4.0.28/groovy-4.0.28.jar c85a95d43af452fdfd9bb47a37af830e037299c2
+
+DEPS=$(ls "$ROOT"/deps/*.jar | tr '\n' ':')
+JMH="$LIB/jmh-core-1.37.jar:$LIB/jopt-simple-5.0.4.jar:$LIB/commons-math3-3.6.1.jar"
+GROOVY="$LIB/groovy-4.0.28.jar"
+
+# The server sources and plugins reference each other, so they are compiled
+# together by the Groovy joint compiler.
+rm -rf "$OUT"
+mkdir -p "$OUT/server" "$OUT/benchmarks" "$OUT/generated"
+cd "$ROOT"
+java -cp "$GROOVY:$DEPS" org.codehaus.groovy.tools.FileSystemCompiler -j -cp "$DEPS" -d "$OUT/server" \
+    $(find src plugins -name '*.java' -o -name '*.groovy')
+
+# The annotation processor generates the benchmark harness and the
+# META-INF/BenchmarkList the runner reads.
+javac -nowarn -processorpath "$LIB/jmh-generator-annprocess-1.37.jar:$JMH" -cp "$OUT/server:$DEPS$JMH" \
+    -s "$OUT/generated" -d "$OUT/benchmarks" $(find benchmarks/src -name '*.java')
+
+# The fixtures load the data files relative to the root of the repository.
+exec java -cp "$OUT/benchmarks:$OUT/server:$DEPS$GROOVY:$JMH" org.openjdk.jmh.Main "$@"
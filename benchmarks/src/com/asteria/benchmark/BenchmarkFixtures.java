@@ -0,0 +1,182 @@
+package com.asteria.benchmark;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.ReferenceCountUtil;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.asteria.game.World;
+import com.asteria.game.character.npc.Npc;
+import com.asteria.game.character.player.Player;
+import com.asteria.game.character.player.skill.Skills;
+import com.asteria.game.location.Position;
+import com.asteria.net.ISAACCipher;
+import com.asteria.net.PlayerIO;
+import com.asteria.net.codec.MessageEncoder;
+import com.asteria.utility.TextUtils;
+import com.asteria.utility.json.EquipmentRequirementLoader;
+import com.asteria.utility.json.ItemDefinitionLoader;
+import com.asteria.utility.json.MessageOpcodeLoader;
+import com.asteria.utility.json.MessageSizeLoader;
+import com.asteria.utility.json.NpcDefinitionLoader;
+import com.asteria.utility.json.NpcDropTableLoader;
+import com.asteria.utility.json.WeaponAnimationLoader;
+import com.asteria.utility.json.WeaponInterfaceLoader;
+
+/**
+ * The fixtures shared by the benchmarks. The definitions are loaded from the
+ * same data files the server uses, and players are given real sessions that
+ * are connected over loopback to a server that discards everything written to
+ * it, so that messages go through the same encoder and channel as they would
+ * in game.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * The position every benchmark crowd is gathered around.
+     */
+    public static final Position CENTER = new Position(3222, 3222);
+
+    /**
+     * The counter used to give every fixture player a unique username.
+     */
+    private static final AtomicInteger USERNAMES = new AtomicInteger();
+
+    /**
+     * The flag that determines if the definitions have been loaded.
+     */
+    private static boolean loaded;
+
+    /**
+     * The event loop group the loopback connections run on.
+     */
+    private static EventLoopGroup group;
+
+    /**
+     * The address of the discarding server.
+     */
+    private static InetSocketAddress address;
+
+    /**
+     * The default constructor.
+     *
+     * @throws UnsupportedOperationException
+     *             if this class is instantiated.
+     */
+    private BenchmarkFixtures() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Loads all of the definitions needed by the benchmarks, does nothing if
+     * they have already been loaded.
+     */
+    public static synchronized void load() {
+        if (loaded)
+            return;
+        new NpcDefinitionLoader().run();
+        new ItemDefinitionLoader().run();
+        new MessageOpcodeLoader().run();
+        new MessageSizeLoader().run();
+        new NpcDropTableLoader().run();
+        new WeaponAnimationLoader().run();
+        new WeaponInterfaceLoader().run();
+        new EquipmentRequirementLoader().run();
+        loaded = true;
+    }
+
+    /**
+     * Opens a new loopback connection to the discarding server, starting the
+     * server if needed. The connection encodes messages with an unseeded
+     * cipher.
+     *
+     * @return the client side of the connection.
+     * @throws Exception
+     *             if the connection could not be opened.
+     */
+    public static synchronized SocketChannel connect() throws Exception {
+        if (group == null) {
+            group = new NioEventLoopGroup(1);
+            ServerBootstrap bootstrap = new ServerBootstrap();
+            bootstrap.group(group).channel(NioServerSocketChannel.class).childHandler(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    ReferenceCountUtil.release(msg);
+                }
+            });
+            Channel server = bootstrap.bind(InetAddress.getLoopbackAddress(), 0).sync().channel();
+            address = (InetSocketAddress) server.localAddress();
+        }
+        Bootstrap bootstrap = new Bootstrap();
+        bootstrap.group(group).channel(NioSocketChannel.class).handler(new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(SocketChannel ch) throws Exception {
+                ch.pipeline().addLast("encoder", new MessageEncoder(new ISAACCipher(new int[4])));
+            }
+        });
+        return (SocketChannel) bootstrap.connect(address).sync().channel();
+    }
+
+    /**
+     * Creates a new player with a loopback session, and registers it at
+     * {@code position}.
+     *
+     * @param position
+     *            the position to register the player at.
+     * @return the registered player.
+     * @throws Exception
+     *             if the session could not be opened.
+     */
+    public static Player login(Position position) throws Exception {
+        Player player = new PlayerIO(connect()).getPlayer();
+        String username = "benchmark" + USERNAMES.incrementAndGet();
+        player.setUsername(username);
+        player.setUsernameHash(TextUtils.nameToHash(username));
+        player.setPassword("benchmark");
+        player.setPosition(position);
+        Skills.create(player);
+        World.getPlayers().add(player);
+        return player;
+    }
+
+    /**
+     * Creates and registers a new non-player character at {@code position}.
+     *
+     * @param id
+     *            the identifier of the character.
+     * @param position
+     *            the position to register the character at.
+     * @return the registered character.
+     */
+    public static Npc spawn(int id, Position position) {
+        Npc npc = new Npc(id, position);
+        World.getNpcs().add(npc);
+        return npc;
+    }
+
+    /**
+     * Gets a position scattered around {@link #CENTER}, within viewing distance
+     * of every other scattered position.
+     *
+     * @param index
+     *            the index of the character being positioned.
+     * @return the scattered position.
+     */
+    public static Position scatter(int index) {
+        return new Position(CENTER.getX() + (index % 13) - 6, CENTER.getY() + ((index / 13) % 13) - 6);
+    }
+}
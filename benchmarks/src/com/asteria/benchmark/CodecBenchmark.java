@@ -0,0 +1,109 @@
+package com.asteria.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asteria.net.ISAACCipher;
+import com.asteria.net.codec.MessageDecoder;
+import com.asteria.net.codec.MessageEncoder;
+import com.asteria.net.message.InputMessage;
+import com.asteria.net.message.MessageBuilder;
+
+/**
+ * The benchmarks for a round trip through the {@link MessageEncoder} and the
+ * {@link MessageDecoder}. Both ends are seeded with the same key so the
+ * encoded opcodes decode correctly, the same as a client and the server.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    /**
+     * The seed of the ciphers on both ends.
+     */
+    private static final int[] SEED = { 1, 2, 3, 4 };
+
+    /**
+     * The size of the payload of the variable sized message.
+     */
+    @Param({ "16", "200" })
+    public int size;
+
+    /**
+     * The channel that encodes messages.
+     */
+    private EmbeddedChannel encoder;
+
+    /**
+     * The channel that decodes messages.
+     */
+    private EmbeddedChannel decoder;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.load();
+        encoder = new EmbeddedChannel(new MessageEncoder(new ISAACCipher(SEED)));
+        decoder = new EmbeddedChannel(new MessageDecoder(new ISAACCipher(SEED)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        encoder.finish();
+        decoder.finish();
+    }
+
+    @Benchmark
+    public int fixedRoundTrip() {
+        MessageBuilder msg = MessageBuilder.create(3);
+        msg.newMessage(72);
+        msg.putShort(1);
+        return roundTrip(msg);
+    }
+
+    @Benchmark
+    public int variableRoundTrip() {
+        MessageBuilder msg = MessageBuilder.create(size + 2);
+        msg.newVarMessage(4);
+        for (int i = 0; i < size; i++)
+            msg.put(i);
+        msg.endVarMessage();
+        return roundTrip(msg);
+    }
+
+    /**
+     * Encodes {@code msg}, then decodes it back into an incoming message.
+     *
+     * @param msg
+     *            the message to encode.
+     * @return the opcode of the decoded message.
+     */
+    private int roundTrip(MessageBuilder msg) {
+        encoder.writeOutbound(msg);
+        ByteBuf encoded = (ByteBuf) encoder.readOutbound();
+        decoder.writeInbound(encoded);
+        InputMessage decoded = (InputMessage) decoder.readInbound();
+        decoded.getPayload().release();
+        return decoded.getOpcode();
+    }
+}
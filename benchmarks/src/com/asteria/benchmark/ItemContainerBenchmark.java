@@ -0,0 +1,94 @@
+package com.asteria.benchmark;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asteria.game.item.Item;
+import com.asteria.game.item.ItemDefinition;
+import com.asteria.game.item.container.ItemContainer;
+import com.asteria.game.item.container.ItemContainerPolicy;
+
+/**
+ * The benchmarks for adding, removing, and checking for space on a bank sized
+ * {@link ItemContainer} that is filled up to a certain amount of distinct
+ * items. Every invocation works with the item in the last used slot, which is
+ * the worst case for the linear searches.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ItemContainerBenchmark {
+
+    /**
+     * The capacity of a bank.
+     */
+    private static final int BANK_CAPACITY = 352;
+
+    /**
+     * The amount of distinct items within the container.
+     */
+    @Param({ "50", "350" })
+    public int filled;
+
+    /**
+     * The container being benchmarked.
+     */
+    private ItemContainer container;
+
+    /**
+     * The item in the last used slot of the container.
+     */
+    private Item last;
+
+    /**
+     * An item that is not within the container.
+     */
+    private Item missing;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.load();
+        int[] ids = Arrays.stream(ItemDefinition.DEFINITIONS).filter(Objects::nonNull).filter(d -> !d.isNoted()).mapToInt(
+            ItemDefinition::getId).limit(filled + 1).toArray();
+        container = new ItemContainer(BANK_CAPACITY, ItemContainerPolicy.STACK_ALWAYS);
+        for (int i = 0; i < filled; i++)
+            container.add(new Item(ids[i], 1));
+        last = new Item(ids[filled - 1], 1);
+        missing = new Item(ids[filled], 1);
+    }
+
+    @Benchmark
+    public boolean addRemove() {
+        container.add(last);
+        return container.remove(last);
+    }
+
+    @Benchmark
+    public boolean addRemoveNew() {
+        container.add(missing);
+        return container.remove(missing);
+    }
+
+    @Benchmark
+    public boolean spaceFor() {
+        return container.spaceFor(missing);
+    }
+}
@@ -0,0 +1,109 @@
+package com.asteria.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.asteria.net.ByteOrder;
+import com.asteria.net.ValueType;
+import com.asteria.net.message.MessageBuilder;
+
+/**
+ * The benchmarks for writing and reading data with a {@link MessageBuilder}.
+ * The bit benchmark writes the same mix of widths as a crowded player update
+ * message: the single bit flags, the 2 and 3 bit movement types and
+ * directions, and the 5 and 11 bit offsets and indexes.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MessageBuilderBenchmark {
+
+    /**
+     * The bit widths written by the bit benchmark, in order.
+     */
+    private static final int[] WIDTHS = { 1, 2, 3, 1, 8, 11, 5, 5, 1, 1, 3, 3 };
+
+    /**
+     * The amount of values written or read per invocation.
+     */
+    @Param({ "64", "1024" })
+    public int amount;
+
+    /**
+     * The builder that is written to, cleared before every invocation.
+     */
+    private MessageBuilder out;
+
+    /**
+     * The builder that is read from, rewound before every invocation.
+     */
+    private MessageBuilder in;
+
+    @Setup
+    public void setup() {
+        out = MessageBuilder.create(amount * 16);
+        in = MessageBuilder.create(amount * 16);
+        for (int i = 0; i < amount; i++) {
+            in.put(i, ValueType.A);
+            in.putShort(i, ValueType.A, ByteOrder.LITTLE);
+            in.putInt(i, ByteOrder.MIDDLE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        out.release();
+        in.release();
+    }
+
+    @Benchmark
+    public MessageBuilder putBits() {
+        out.buffer().clear();
+        out.startBitAccess();
+        for (int i = 0; i < amount; i++) {
+            int width = WIDTHS[i % WIDTHS.length];
+            out.putBits(width, i & ((1 << width) - 1));
+        }
+        out.endBitAccess();
+        return out;
+    }
+
+    @Benchmark
+    public MessageBuilder put() {
+        out.buffer().clear();
+        for (int i = 0; i < amount; i++) {
+            out.put(i, ValueType.A);
+            out.putShort(i, ValueType.A, ByteOrder.LITTLE);
+            out.putInt(i, ByteOrder.MIDDLE);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        in.buffer().readerIndex(0);
+        for (int i = 0; i < amount; i++) {
+            blackhole.consume(in.get(ValueType.A));
+            blackhole.consume(in.getShort(ValueType.A, ByteOrder.LITTLE));
+            blackhole.consume(in.getInt(ByteOrder.MIDDLE));
+        }
+    }
+}
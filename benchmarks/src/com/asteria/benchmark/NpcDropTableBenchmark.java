@@ -0,0 +1,62 @@
+package com.asteria.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asteria.game.character.npc.drop.NpcDropManager;
+import com.asteria.game.character.npc.drop.NpcDropTable;
+import com.asteria.game.character.player.Player;
+import com.asteria.game.item.Item;
+
+/**
+ * The benchmark for rolling the drops of a {@link NpcDropTable}, which is done
+ * every time a non-player character is killed.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NpcDropTableBenchmark {
+
+    /**
+     * The identifier of the non-player character whose table is rolled.
+     */
+    private static final int NPC = 1615;
+
+    /**
+     * The table that is rolled.
+     */
+    private NpcDropTable table;
+
+    /**
+     * The player the table is rolled for.
+     */
+    private Player player;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkFixtures.load();
+        table = NpcDropManager.TABLES.get(NPC);
+        player = BenchmarkFixtures.login(BenchmarkFixtures.CENTER);
+    }
+
+    @Benchmark
+    public List<Item> toItems() {
+        return table.toItems(player);
+    }
+}
@@ -0,0 +1,81 @@
+package com.asteria.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asteria.game.character.player.Player;
+import com.asteria.game.character.player.serialize.PlayerSerialization;
+import com.asteria.net.login.LoginResponse;
+
+/**
+ * The benchmarks for saving and loading a character file through the
+ * {@link PlayerSerialization}. Loading is measured both from the
+ * serialization cache, and from the file on disk by giving the loading player
+ * a username hash that was never cached.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * Determines if characters are loaded from the serialization cache or
+     * from the file on disk.
+     */
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    /**
+     * The player that is saved.
+     */
+    private Player saved;
+
+    /**
+     * The player that is loaded into.
+     */
+    private Player loaded;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkFixtures.load();
+        saved = BenchmarkFixtures.login(BenchmarkFixtures.CENTER);
+        loaded = BenchmarkFixtures.login(BenchmarkFixtures.CENTER);
+        loaded.setUsername(saved.getUsername());
+        loaded.setUsernameHash(cached ? saved.getUsernameHash() : ~saved.getUsernameHash());
+        new PlayerSerialization(saved).serialize();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(Paths.get("./data/players/" + saved.getUsername() + ".json"));
+    }
+
+    @Benchmark
+    public void serialize() {
+        new PlayerSerialization(saved).serialize();
+    }
+
+    @Benchmark
+    public LoginResponse deserialize() {
+        return new PlayerSerialization(loaded).deserialize("benchmark");
+    }
+}
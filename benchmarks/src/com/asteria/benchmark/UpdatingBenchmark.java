@@ -0,0 +1,110 @@
+package com.asteria.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asteria.game.character.Flag;
+import com.asteria.game.character.npc.Npc;
+import com.asteria.game.character.npc.NpcUpdating;
+import com.asteria.game.character.player.Player;
+import com.asteria.game.character.player.PlayerUpdating;
+
+/**
+ * The benchmarks for the updating section of a tick, for a crowd of players
+ * and non-player characters that can all see each other. Every invocation
+ * encodes, updates, resets, and flushes the whole crowd the same way the game
+ * sequence does, but on a single thread.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class UpdatingBenchmark {
+
+    /**
+     * The amount of players in the crowd.
+     */
+    @Param({ "25", "100", "250" })
+    public int players;
+
+    /**
+     * The amount of non-player characters in the crowd.
+     */
+    @Param({ "25", "100", "250" })
+    public int npcs;
+
+    /**
+     * Determines if every player has their appearance flagged every tick,
+     * which is the worst case for the update blocks.
+     */
+    @Param({ "false", "true" })
+    public boolean appearance;
+
+    /**
+     * The players in the crowd.
+     */
+    private final List<Player> crowd = new ArrayList<>();
+
+    /**
+     * The non-player characters in the crowd.
+     */
+    private final List<Npc> npcCrowd = new ArrayList<>();
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkFixtures.load();
+        for (int i = 0; i < players; i++)
+            crowd.add(BenchmarkFixtures.login(BenchmarkFixtures.scatter(i)));
+        for (int i = 0; i < npcs; i++)
+            npcCrowd.add(BenchmarkFixtures.spawn(1, BenchmarkFixtures.scatter(i)));
+
+        // Run the first tick so that every character is already local, and the
+        // benchmarks measure the steady state.
+        playerUpdating();
+        npcUpdating();
+    }
+
+    @Benchmark
+    public void playerUpdating() throws Exception {
+        for (Player player : crowd) {
+            if (appearance)
+                player.getFlags().set(Flag.APPEARANCE);
+            PlayerUpdating.encode(player);
+        }
+        for (Player player : crowd)
+            PlayerUpdating.update(player);
+        for (Player player : crowd) {
+            player.reset();
+            player.getSession().flush();
+        }
+    }
+
+    @Benchmark
+    public void npcUpdating() throws Exception {
+        for (Npc npc : npcCrowd)
+            NpcUpdating.encode(npc);
+        for (Player player : crowd)
+            NpcUpdating.update(player);
+        for (Npc npc : npcCrowd)
+            npc.reset();
+        for (Player player : crowd)
+            player.getSession().flush();
+    }
+}
@@ -0,0 +1,375 @@
+package com.asteria.loadgen;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.asteria.net.ByteOrder;
+import com.asteria.net.ISAACCipher;
+import com.asteria.net.NetworkConstants;
+import com.asteria.net.ValueType;
+import com.asteria.net.message.MessageBuilder;
+import com.asteria.utility.TextUtils;
+
+/**
+ * A simulated client that logs into the server using the same protocol as the
+ * #317 client, and then acts out its {@link BotProfile} once every tick. The
+ * data sent by the server is counted but never decoded.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class Bot extends ByteToMessageDecoder {
+
+    /**
+     * The public RSA exponent that pairs with the private exponent of the
+     * server.
+     */
+    private static final BigInteger RSA_EXPONENT = BigInteger.valueOf(65537);
+
+    /**
+     * The time in nanoseconds of silence from the server that separates one
+     * burst of data from the next.
+     */
+    private static final long BURST_GAP = TimeUnit.MILLISECONDS.toNanos(300);
+
+    /**
+     * The enumerated type whose elements represent the login stages of a bot.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private enum State {
+        HANDSHAKE,
+        LOGIN,
+        LOGGED_IN
+    }
+
+    /**
+     * The random generator for this bot.
+     */
+    private final Random random = new Random();
+
+    /**
+     * The statistics this bot will record to.
+     */
+    private final LoadStatistics statistics;
+
+    /**
+     * The behaviour this bot will act out.
+     */
+    private final BotProfile profile;
+
+    /**
+     * The username of this bot.
+     */
+    private final String username;
+
+    /**
+     * The password of this bot.
+     */
+    private final String password;
+
+    /**
+     * The amount of bots this bot may interact with.
+     */
+    private final int players;
+
+    /**
+     * The amount of non-player characters this bot may interact with.
+     */
+    private final int npcs;
+
+    /**
+     * The time in nanoseconds this bot connected.
+     */
+    private final long connected = System.nanoTime();
+
+    /**
+     * The login stage this bot is in.
+     */
+    private State state = State.HANDSHAKE;
+
+    /**
+     * The cipher that will encrypt the opcodes of outgoing messages.
+     */
+    private ISAACCipher encryptor;
+
+    /**
+     * The channel this bot is connected through.
+     */
+    private Channel channel;
+
+    /**
+     * The scheduled behaviour of this bot.
+     */
+    private ScheduledFuture<?> behaviour;
+
+    /**
+     * The time in nanoseconds data was last received.
+     */
+    private long lastRead;
+
+    /**
+     * The time in nanoseconds the latest burst of data started.
+     */
+    private long lastBurst;
+
+    /**
+     * The flag that determines if a message has been sent since the last time
+     * this bot acted.
+     */
+    private boolean active;
+
+    /**
+     * Creates a new {@link Bot}.
+     *
+     * @param statistics
+     *            the statistics this bot will record to.
+     * @param profile
+     *            the behaviour this bot will act out.
+     * @param username
+     *            the username of this bot.
+     * @param password
+     *            the password of this bot.
+     * @param players
+     *            the amount of bots this bot may interact with.
+     * @param npcs
+     *            the amount of non-player characters this bot may interact
+     *            with.
+     */
+    public Bot(LoadStatistics statistics, BotProfile profile, String username, String password, int players, int npcs) {
+        this.statistics = statistics;
+        this.profile = profile;
+        this.username = username;
+        this.password = password;
+        this.players = players;
+        this.npcs = npcs;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        channel = ctx.channel();
+        ByteBuf buf = ctx.alloc().buffer(2);
+        buf.writeByte(14);
+        buf.writeByte((int) (TextUtils.nameToHash(username) >> 16 & 31));
+        ctx.writeAndFlush(buf);
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (state == State.LOGGED_IN) {
+            behaviour.cancel(false);
+            statistics.loggedOut();
+        } else {
+            statistics.failed();
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        ctx.channel().close();
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        switch (state) {
+        case HANDSHAKE:
+            if (in.readableBytes() < 17)
+                return;
+            in.skipBytes(9);
+            sendLoginBlock(ctx, in.readLong());
+            state = State.LOGIN;
+            break;
+        case LOGIN:
+            if (in.readableBytes() < 3)
+                return;
+            int response = in.readUnsignedByte();
+            in.skipBytes(2);
+            if (response != 2) {
+                ctx.channel().close();
+                return;
+            }
+            state = State.LOGGED_IN;
+            statistics.loggedIn(System.nanoTime() - connected);
+            behaviour = ctx.channel().eventLoop().scheduleAtFixedRate(this::act, random.nextInt(600), 600,
+                TimeUnit.MILLISECONDS);
+            break;
+        case LOGGED_IN:
+            long now = System.nanoTime();
+            if (now - lastRead > BURST_GAP) {
+                if (lastBurst != 0)
+                    statistics.burst(now - lastBurst);
+                lastBurst = now;
+            }
+            lastRead = now;
+            statistics.received(in.readableBytes());
+            in.skipBytes(in.readableBytes());
+            break;
+        }
+    }
+
+    /**
+     * Sends the login block, encrypted with RSA if the server decodes it.
+     *
+     * @param ctx
+     *            the context of the channel.
+     * @param serverHalf
+     *            the session key generated by the server.
+     */
+    private void sendLoginBlock(ChannelHandlerContext ctx, long serverHalf) {
+        long clientHalf = random.nextLong();
+        int[] isaacSeed = { (int) (clientHalf >> 32), (int) clientHalf, (int) (serverHalf >> 32), (int) serverHalf };
+        encryptor = new ISAACCipher(isaacSeed);
+
+        MessageBuilder block = MessageBuilder.create(128);
+        block.put(10);
+        block.putLong(clientHalf);
+        block.putLong(serverHalf);
+        block.putInt(0);
+        block.putString(username);
+        block.putString(password);
+        byte[] data = new byte[block.buffer().readableBytes()];
+        block.buffer().readBytes(data);
+        block.release();
+        if (NetworkConstants.DECODE_RSA)
+            data = new BigInteger(data).modPow(RSA_EXPONENT, NetworkConstants.RSA_MODULUS).toByteArray();
+
+        ByteBuf buf = ctx.alloc().buffer(42 + data.length + 1);
+        buf.writeByte(16);
+        buf.writeByte(40 + 1 + data.length);
+        buf.writeByte(255);
+        buf.writeShort(317);
+        buf.writeByte(0);
+        for (int i = 0; i < 9; i++)
+            buf.writeInt(0);
+        buf.writeByte(data.length);
+        buf.writeBytes(data);
+        ctx.writeAndFlush(buf);
+    }
+
+    /**
+     * Acts out the profile of this bot, and keeps the connection alive if
+     * nothing was sent.
+     */
+    private void act() {
+        try {
+            profile.act(this, random);
+            if (!active)
+                send(0, null, false);
+            active = false;
+        } catch (Exception e) {
+            e.printStackTrace();
+            channel.close();
+        }
+    }
+
+    /**
+     * Walks to {@code x} and {@code y}, leaving the server to find the path.
+     *
+     * @param x
+     *            the absolute x coordinate to walk to.
+     * @param y
+     *            the absolute y coordinate to walk to.
+     * @param run
+     *            if the bot should run there.
+     */
+    public void walk(int x, int y, boolean run) {
+        MessageBuilder msg = MessageBuilder.create(5);
+        msg.putShort(x, ValueType.A, ByteOrder.LITTLE);
+        msg.putShort(y, ByteOrder.LITTLE);
+        msg.put(run ? 1 : 0, ValueType.C);
+        send(164, msg, true);
+    }
+
+    /**
+     * Says {@code text} in the public chat, packed the same way the #317
+     * client packs it.
+     *
+     * @param text
+     *            the text to say.
+     */
+    public void chat(String text) {
+        byte[] data = TextUtils.textPack(text);
+        MessageBuilder msg = MessageBuilder.create(data.length + 2);
+        msg.put(0, ValueType.S);
+        msg.put(0, ValueType.S);
+        for (int i = data.length - 1; i >= 0; i--)
+            msg.put(data[i], ValueType.A);
+        send(4, msg, true);
+    }
+
+    /**
+     * Attacks the non-player character in {@code slot}.
+     *
+     * @param slot
+     *            the slot of the character to attack.
+     */
+    public void attackNpc(int slot) {
+        MessageBuilder msg = MessageBuilder.create(2);
+        msg.putShort(slot, ValueType.A);
+        send(72, msg, false);
+    }
+
+    /**
+     * Requests a trade with the player in {@code slot}.
+     *
+     * @param slot
+     *            the slot of the player to trade with.
+     */
+    public void requestTrade(int slot) {
+        MessageBuilder msg = MessageBuilder.create(2);
+        msg.putShort(slot, ByteOrder.LITTLE);
+        send(139, msg, false);
+    }
+
+    /**
+     * Sends a message to the server, encrypting its opcode.
+     *
+     * @param opcode
+     *            the opcode of the message.
+     * @param payload
+     *            the payload of the message, or {@code null} if it has none.
+     * @param variable
+     *            if the message is variable sized.
+     */
+    private void send(int opcode, MessageBuilder payload, boolean variable) {
+        int size = payload == null ? 0 : payload.buffer().readableBytes();
+        ByteBuf buf = channel.alloc().buffer(size + 2);
+        buf.writeByte(opcode + encryptor.getKey());
+        if (variable)
+            buf.writeByte(size);
+        if (payload != null) {
+            buf.writeBytes(payload.buffer());
+            payload.release();
+        }
+        statistics.sent(buf.readableBytes());
+        channel.writeAndFlush(buf);
+        active = true;
+    }
+
+    /**
+     * Gets the amount of bots this bot may interact with.
+     *
+     * @return the amount of players.
+     */
+    public int getPlayers() {
+        return players;
+    }
+
+    /**
+     * Gets the amount of non-player characters this bot may interact with.
+     *
+     * @return the amount of non-player characters.
+     */
+    public int getNpcs() {
+        return npcs;
+    }
+}
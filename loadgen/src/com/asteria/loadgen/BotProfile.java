@@ -0,0 +1,110 @@
+package com.asteria.loadgen;
+
+import java.util.Random;
+
+/**
+ * The enumerated type whose elements represent the scripted behaviours a
+ * {@link Bot} can act out. Every bot acts once per tick, targets for combat and
+ * trading are picked at random from the slots the other characters are likely
+ * to be in, and the server is left to reject the ones that are not valid.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public enum BotProfile {
+    IDLE {
+        @Override
+        public void act(Bot bot, Random random) {
+        }
+    },
+    WALKER {
+        @Override
+        public void act(Bot bot, Random random) {
+            if (random.nextInt(4) == 0)
+                walk(bot, random);
+        }
+    },
+    CHATTER {
+        @Override
+        public void act(Bot bot, Random random) {
+            if (random.nextInt(5) == 0)
+                bot.chat(PHRASES[random.nextInt(PHRASES.length)]);
+        }
+    },
+    FIGHTER {
+        @Override
+        public void act(Bot bot, Random random) {
+            if (bot.getNpcs() > 0 && random.nextInt(10) == 0) {
+                bot.attackNpc(1 + random.nextInt(bot.getNpcs()));
+            } else if (random.nextInt(20) == 0) {
+                walk(bot, random);
+            }
+        }
+    },
+    TRADER {
+        @Override
+        public void act(Bot bot, Random random) {
+            if (random.nextInt(8) == 0) {
+                bot.requestTrade(1 + random.nextInt(bot.getPlayers()));
+            } else if (random.nextInt(10) == 0) {
+                walk(bot, random);
+            }
+        }
+    },
+    MIXED {
+        @Override
+        public void act(Bot bot, Random random) {
+            int roll = random.nextInt(10);
+            if (roll < 4) {
+                WALKER.act(bot, random);
+            } else if (roll < 6) {
+                CHATTER.act(bot, random);
+            } else if (roll < 9) {
+                FIGHTER.act(bot, random);
+            } else {
+                TRADER.act(bot, random);
+            }
+        }
+    };
+
+    /**
+     * The coordinates bots will walk around, the same as
+     * {@link com.asteria.game.GameConstants#STARTING_POSITION} so that new bots
+     * start out right in the middle of them.
+     */
+    private static final int WALK_X = 3093, WALK_Y = 3244;
+
+    /**
+     * The distance from the walking coordinates bots will walk within.
+     */
+    private static final int WALK_RADIUS = 12;
+
+    /**
+     * The phrases that bots will say in the public chat.
+     */
+    private static final String[] PHRASES = { "hello", "selling lobsters", "buying logs", "anyone want to duel", "lol",
+            "nice", "where is the bank" };
+
+    /**
+     * Acts out this behaviour for {@code bot}.
+     *
+     * @param bot
+     *            the bot acting out this behaviour.
+     * @param random
+     *            the random generator of the bot.
+     */
+    public abstract void act(Bot bot, Random random);
+
+    /**
+     * Walks {@code bot} to a random position around the walking coordinates.
+     *
+     * @param bot
+     *            the bot that will walk.
+     * @param random
+     *            the random generator of the bot.
+     */
+    private static void walk(Bot bot, Random random) {
+        int x = WALK_X + random.nextInt(WALK_RADIUS * 2 + 1) - WALK_RADIUS;
+        int y = WALK_Y + random.nextInt(WALK_RADIUS * 2 + 1) - WALK_RADIUS;
+        bot.walk(x, y, random.nextBoolean());
+    }
+}
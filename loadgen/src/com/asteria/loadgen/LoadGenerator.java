@@ -0,0 +1,129 @@
+package com.asteria.loadgen;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.asteria.net.NetworkConstants;
+import com.asteria.utility.LoggerUtils;
+
+/**
+ * The headless load generator that logs simulated clients into a running
+ * server over the real protocol, and reports the interval between bursts of
+ * data from the server, bandwidth per player, and login latency observed by
+ * them. Arguments are given as {@code key=value} pairs, any that are left out
+ * use their defaults:
+ * <ul>
+ * <li>{@code host} - the host of the server, {@code 127.0.0.1} by default.</li>
+ * <li>{@code port} - the port of the server, {@link NetworkConstants#PORT} by
+ * default.</li>
+ * <li>{@code bots} - the amount of bots to log in, {@code 100} by default.</li>
+ * <li>{@code profile} - the {@link BotProfile} of the bots, {@code MIXED} by
+ * default.</li>
+ * <li>{@code rate} - the amount of bots that connect per second, {@code 20} by
+ * default.</li>
+ * <li>{@code npcs} - the amount of non-player character slots bots will pick
+ * targets from, {@code 200} by default.</li>
+ * <li>{@code duration} - the amount of seconds to run for after every bot has
+ * connected, {@code 300} by default.</li>
+ * <li>{@code report} - the amount of seconds between reports, {@code 10} by
+ * default.</li>
+ * <li>{@code prefix} - the prefix of the usernames of the bots, {@code bot} by
+ * default.</li>
+ * <li>{@code password} - the password of the bots, {@code loadtest} by
+ * default.</li>
+ * </ul>
+ * Bots log in with their own character files, which are created on the server
+ * the first time each bot logs in.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class LoadGenerator {
+
+    /**
+     * The logger that will print important information.
+     */
+    private static Logger logger = LoggerUtils.getLogger(LoadGenerator.class);
+
+    /**
+     * The default constructor.
+     *
+     * @throws UnsupportedOperationException
+     *             if this class is instantiated.
+     */
+    private LoadGenerator() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * The main method of the load generator.
+     *
+     * @param args
+     *            the {@code key=value} arguments of the load generator.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2)
+                throw new IllegalArgumentException("Arguments must be given as key=value [" + arg + "]");
+            options.put(pair[0], pair[1]);
+        }
+        String host = options.getOrDefault("host", "127.0.0.1");
+        int port = Integer.parseInt(options.getOrDefault("port", Integer.toString(NetworkConstants.PORT)));
+        int bots = Integer.parseInt(options.getOrDefault("bots", "100"));
+        BotProfile profile = BotProfile.valueOf(options.getOrDefault("profile", "MIXED").toUpperCase());
+        int rate = Integer.parseInt(options.getOrDefault("rate", "20"));
+        int npcs = Integer.parseInt(options.getOrDefault("npcs", "200"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "300"));
+        long report = Long.parseLong(options.getOrDefault("report", "10"));
+        String prefix = options.getOrDefault("prefix", "bot");
+        String password = options.getOrDefault("password", "loadtest");
+
+        LoadStatistics statistics = new LoadStatistics();
+        ChannelGroup channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+        EventLoopGroup group = new NioEventLoopGroup();
+        try {
+            group.scheduleAtFixedRate(() -> logger.info(statistics.summary()), report, report, TimeUnit.SECONDS);
+            logger.info("Logging " + bots + " " + profile + " bots into " + host + ":" + port + "...");
+            long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+            long start = System.nanoTime();
+            for (int i = 1; i <= bots; i++) {
+                Bot bot = new Bot(statistics, profile, prefix + i, password, bots, npcs);
+                Bootstrap bootstrap = new Bootstrap();
+                bootstrap.group(group);
+                bootstrap.channel(NioSocketChannel.class);
+                bootstrap.option(ChannelOption.TCP_NODELAY, true);
+                bootstrap.handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) throws Exception {
+                        ch.pipeline().addLast(bot);
+                    }
+                });
+                Channel channel = bootstrap.connect(host, port).channel();
+                channels.add(channel);
+                long wait = start + interval * i - System.nanoTime();
+                if (wait > 0)
+                    TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            TimeUnit.SECONDS.sleep(duration);
+            logger.info(statistics.summary());
+        } finally {
+            channels.close().awaitUninterruptibly();
+            group.shutdownGracefully();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.asteria.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.asteria.utility.LatencyHistogram;
+
+/**
+ * The statistics recorded by all of the bots of a {@link LoadGenerator}.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class LoadStatistics {
+
+    /**
+     * The histogram of the time taken from connecting to receiving the login
+     * response.
+     */
+    private final LatencyHistogram loginLatency = new LatencyHistogram();
+
+    /**
+     * The histogram of the time between the bursts of data sent by the server.
+     * This is only an approximation of the tick rate as seen by the client,
+     * the time the server spends on each tick is measured by its own
+     * {@code TickProfiler}.
+     */
+    private final LatencyHistogram burstInterval = new LatencyHistogram();
+
+    /**
+     * The amount of bytes received from the server.
+     */
+    private final AtomicLong received = new AtomicLong();
+
+    /**
+     * The amount of bytes sent to the server.
+     */
+    private final AtomicLong sent = new AtomicLong();
+
+    /**
+     * The amount of bots that are logged in.
+     */
+    private final AtomicInteger online = new AtomicInteger();
+
+    /**
+     * The amount of bots that were turned away or disconnected before logging
+     * in.
+     */
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * The time in nanoseconds these statistics were last reported.
+     */
+    private long lastReport = System.nanoTime();
+
+    /**
+     * The amount of bytes received when these statistics were last reported.
+     */
+    private long lastReceived;
+
+    /**
+     * Records a successful login.
+     *
+     * @param nanos
+     *            the time taken to log in, in nanoseconds.
+     */
+    public void loggedIn(long nanos) {
+        loginLatency.recordNanos(nanos);
+        online.incrementAndGet();
+    }
+
+    /**
+     * Records a bot that has logged out.
+     */
+    public void loggedOut() {
+        online.decrementAndGet();
+    }
+
+    /**
+     * Records a bot that failed to log in.
+     */
+    public void failed() {
+        failed.incrementAndGet();
+    }
+
+    /**
+     * Records the time between two bursts of data from the server.
+     *
+     * @param nanos
+     *            the time between the bursts, in nanoseconds.
+     */
+    public void burst(long nanos) {
+        burstInterval.recordNanos(nanos);
+    }
+
+    /**
+     * Records bytes received from the server.
+     *
+     * @param bytes
+     *            the amount of bytes received.
+     */
+    public void received(int bytes) {
+        received.addAndGet(bytes);
+    }
+
+    /**
+     * Records bytes sent to the server.
+     *
+     * @param bytes
+     *            the amount of bytes sent.
+     */
+    public void sent(int bytes) {
+        sent.addAndGet(bytes);
+    }
+
+    /**
+     * Creates a single line summary of the statistics recorded so far, and of
+     * the bandwidth used since the last summary.
+     *
+     * @return the summary of these statistics.
+     */
+    public synchronized String summary() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - lastReport)) / 1000D;
+        long totalReceived = received.get();
+        int players = online.get();
+        double perPlayer = players == 0 ? 0 : (totalReceived - lastReceived) / seconds / players;
+        lastReport = now;
+        lastReceived = totalReceived;
+        return String.format("Load profile [online=%d, failed=%d, received=%dkB, sent=%dkB] bytes/player/s=%.1f login[%s] inter-burst[%s]",
+            players, failed.get(), totalReceived / 1024, sent.get() / 1024, perPlayer, format(loginLatency), format(burstInterval));
+    }
+
+    /**
+     * Formats the percentiles of {@code histogram} in milliseconds.
+     *
+     * @param histogram
+     *            the histogram to format.
+     * @return the formatted histogram.
+     */
+    private static String format(LatencyHistogram histogram) {
+        return String.format("p50=%.2fms p99=%.2fms max=%.2fms", histogram.getValueAtPercentile(50) / 1000D, histogram
+            .getValueAtPercentile(99) / 1000D, histogram.getMaximum() / 1000D);
+    }
+}
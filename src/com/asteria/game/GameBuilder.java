@@ -4,12 +4,10 @@ import java.util.ArrayDeque;
 import java.util.Queue;
 
 import com.asteria.Bootstrap;
-import com.asteria.game.character.player.content.RestoreStatTask;
 import com.asteria.game.character.player.minigame.MinigameHandler;
 import com.asteria.game.character.player.serialize.PlayerSerialization;
 import com.asteria.game.item.ItemNodeManager;
 import com.asteria.net.ConnectionHandler;
-import com.asteria.service.ServiceQueue;
 import com.asteria.utility.BackgroundLoader;
 import com.asteria.utility.json.EquipmentRequirementLoader;
 import com.asteria.utility.json.ItemDefinitionLoader;
@@ -41,11 +39,6 @@ public final class GameBuilder {
      */
     private final BackgroundLoader backgroundLoader = new BackgroundLoader();
 
-    /**
-     * The service queue that will run the {@link GameService}.
-     */
-    private final ServiceQueue queue = new ServiceQueue();
-
     /**
      * Initializes this game builder effectively preparing the background
      * startup tasks and game processing.
@@ -55,9 +48,8 @@ public final class GameBuilder {
      */
     public void initialize() throws Exception {
         backgroundLoader.start(createBackgroundTasks());
-        queue.submit(World.getService());
+        World.getService().start();
         World.submit(new ItemNodeManager());
-        World.submit(new RestoreStatTask());
         World.submit(new MinigameHandler());
         PlayerSerialization.getCache().init();
         if (!backgroundLoader.awaitCompletion())
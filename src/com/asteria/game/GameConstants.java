@@ -7,6 +7,7 @@ import com.asteria.game.item.Item;
 import com.asteria.game.location.Location;
 import com.asteria.game.location.Position;
 import com.asteria.game.location.SquareLocation;
+import com.asteria.game.profile.TickProfiler;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -41,6 +42,24 @@ public final class GameConstants {
      */
     public static final int CYCLE_RATE = 600;
 
+    /**
+     * The policy the {@link GameService} will use to recover when a tick takes
+     * longer than {@code CYCLE_RATE} to complete.
+     */
+    public static final OverrunPolicy OVERRUN_POLICY = OverrunPolicy.CATCH_UP;
+
+    /**
+     * The maximum amount of missed ticks that will be executed back-to-back
+     * when using the {@link OverrunPolicy#CATCH_UP} policy.
+     */
+    public static final int CATCH_UP_LIMIT = 3;
+
+    /**
+     * The amount of ticks in between each summary printed by the
+     * {@link TickProfiler}, or {@code 0} to never print a summary.
+     */
+    public static final int PROFILE_LOG_INTERVAL = 100;
+
     /**
      * How long the player will stay logged in for after they have x-logged
      * during combat.
@@ -55,6 +74,14 @@ public final class GameConstants {
      */
     public static final boolean CONCURRENCY = (Runtime.getRuntime().availableProcessors() > 1);
 
+    /**
+     * The amount of contiguous character indexes that will be processed as a
+     * single unit of work during concurrent synchronization. Lower values
+     * balance work between threads more evenly, higher values reduce the
+     * dispatching overhead.
+     */
+    public static final int SYNC_CHUNK_SIZE = 64;
+
     /**
      * The maximum amount of players that can be logged in on a single game
      * sequence.
@@ -1,20 +1,32 @@
 package com.asteria.game;
 
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.asteria.game.profile.TickProfiler;
 import com.asteria.service.Service;
 import com.asteria.service.ServiceQueue;
 import com.asteria.utility.LoggerUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
- * The {@link Service} implementation that synchronizes game logic periodically
- * at strict intervals. This service is responsible for virtually running the
- * entire game.
+ * The game loop that synchronizes game logic periodically at strict intervals.
+ * This service is responsible for virtually running the entire game.
+ * <p>
+ * <p>
+ * Ticks are executed on a dedicated thread and are scheduled against absolute
+ * deadlines that are {@link GameConstants#CYCLE_RATE} apart, so a slow tick
+ * does not push every later tick back. How the loop recovers from a tick that
+ * overruns its deadline is determined by
+ * {@link GameConstants#OVERRUN_POLICY}.
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class GameService extends Service {
+public final class GameService implements Runnable {
 
     /**
      * The logger that will print important information.
@@ -27,24 +39,60 @@ public final class GameService extends Service {
     private final ServiceQueue serviceQueue = new ServiceQueue(GameConstants.THREAD_TIMEOUT);
 
     /**
-     * Creates a new {@link GameService} with a execution rate of
-     * {@code CYCLE_RATE}.
+     * The factory that will create the thread this game loop runs on.
      */
-    public GameService() {
-        super(GameConstants.CYCLE_RATE);
+    private final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("GameThread").setPriority(
+        Thread.MAX_PRIORITY).build();
+
+    /**
+     * The interval in nanoseconds in between the deadlines of each tick.
+     */
+    private final long period = TimeUnit.MILLISECONDS.toNanos(GameConstants.CYCLE_RATE);
+
+    /**
+     * The thread this game loop is running on, {@code null} if it has not
+     * been started yet.
+     */
+    private volatile Thread thread;
+
+    /**
+     * Starts this game loop on a new dedicated thread.
+     *
+     * @throws IllegalStateException
+     *             if this game loop has already been started.
+     */
+    public synchronized void start() {
+        Preconditions.checkState(thread == null, "The GameService has already been started.");
+        thread = threadFactory.newThread(this);
+        thread.start();
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * <p>
-     * This method should <b>never</b> be invoked unless by the underlying
-     * {@linkplain ServiceQueue service queue context}. Illegal invocation of
-     * this method will lead to serious gameplay timing issues as well as other
-     * unexplainable and unpredictable issues related to gameplay.
+     * This method should <b>never</b> be invoked unless by the thread created
+     * in {@code start()}. Illegal invocation of this method will lead to
+     * serious gameplay timing issues as well as other unexplainable and
+     * unpredictable issues related to gameplay.
      */
     @Override
-    public void execute(ServiceQueue context) {
+    public void run() {
+        Preconditions.checkState(Thread.currentThread() == thread, "Illegal invocation of the game loop.");
+        TickProfiler profiler = World.getProfiler();
+        long deadline = System.nanoTime() + period;
+        while (!thread.isInterrupted()) {
+            long now = awaitDeadline(deadline);
+            profiler.recordJitter(now - deadline);
+            sequence();
+            deadline = nextDeadline(deadline + period, System.nanoTime());
+        }
+    }
+
+    /**
+     * Executes a single tick of the game, logging any errors that occur.
+     */
+    private void sequence() {
         try {
             World.sequence();
         } catch (Throwable t) {
@@ -53,6 +101,49 @@ public final class GameService extends Service {
         }
     }
 
+    /**
+     * Blocks the game thread until {@code deadline} has been reached.
+     *
+     * @param deadline
+     *            the deadline to wait for, in nanoseconds.
+     * @return the time in nanoseconds the wait completed on.
+     */
+    private long awaitDeadline(long deadline) {
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            LockSupport.parkNanos(this, deadline - now);
+        }
+        return now;
+    }
+
+    /**
+     * Determines the deadline of the next tick in accordance to
+     * {@link GameConstants#OVERRUN_POLICY}.
+     *
+     * @param deadline
+     *            the deadline of the next tick on the original schedule.
+     * @param now
+     *            the current time in nanoseconds.
+     * @return the deadline of the next tick.
+     */
+    private long nextDeadline(long deadline, long now) {
+        if (now <= deadline)
+            return deadline;
+        long behind = (now - deadline) / period;
+        switch (GameConstants.OVERRUN_POLICY) {
+        case SKIP:
+            return deadline + ((behind + 1) * period);
+        case CATCH_UP:
+            if (behind < GameConstants.CATCH_UP_LIMIT)
+                return deadline;
+            return deadline + ((behind - GameConstants.CATCH_UP_LIMIT + 1) * period);
+        case STRETCH:
+            return now;
+        default:
+            throw new IllegalStateException("Invalid overrun policy: " + GameConstants.OVERRUN_POLICY);
+        }
+    }
+
     /**
      * Submits {@code service} to the backing service queue, to be executed
      * asynchronously. Please note that the task may not be executed for some
@@ -83,4 +174,4 @@ public final class GameService extends Service {
             }
         });
     }
-}
\ No newline at end of file
+}
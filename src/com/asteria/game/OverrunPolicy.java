@@ -0,0 +1,33 @@
+package com.asteria.game;
+
+/**
+ * The enumerated type whose elements represent the policies the
+ * {@link GameService} can use when a tick takes longer than
+ * {@link GameConstants#CYCLE_RATE} to complete, causing the next tick to miss
+ * its deadline.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public enum OverrunPolicy {
+
+    /**
+     * The ticks that were missed are skipped entirely, and the next tick is
+     * executed on the next deadline of the original schedule.
+     */
+    SKIP,
+
+    /**
+     * The ticks that were missed are executed back-to-back until the game
+     * clock has caught up, but no more than
+     * {@link GameConstants#CATCH_UP_LIMIT} in a row. Any ticks missed beyond
+     * that limit are skipped.
+     */
+    CATCH_UP,
+
+    /**
+     * The next tick is executed immediately and the schedule is shifted
+     * forward from there, permanently stretching the game clock by the amount
+     * of time the overrun took.
+     */
+    STRETCH
+}
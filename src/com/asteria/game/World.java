@@ -25,11 +25,13 @@ import com.asteria.game.item.ItemNodeManager;
 import com.asteria.game.location.Position;
 import com.asteria.game.object.ObjectNodeManager;
 import com.asteria.game.plugin.PluginHandler;
+import com.asteria.game.profile.TickPhase;
+import com.asteria.game.profile.TickProfiler;
 import com.asteria.game.shop.Shop;
 import com.asteria.game.sync.GameSyncExecutor;
 import com.asteria.game.sync.GameSyncTask;
-import com.asteria.net.ConnectionHandler;
 import com.asteria.net.PlayerIO;
+import com.asteria.net.message.OutputMessages;
 import com.asteria.task.Task;
 import com.asteria.task.TaskQueue;
 import com.asteria.utility.LoggerUtils;
@@ -77,6 +79,18 @@ public final class World {
      */
     private static Queue<Player> logouts = new ConcurrentLinkedQueue<>();
 
+    /**
+     * The queue of {@link Player}s that failed during a concurrent phase, and
+     * will be removed once it has completed.
+     */
+    private static Queue<Player> failedPlayers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The queue of {@link Npc}s that failed during a concurrent phase, and will
+     * be removed once it has completed.
+     */
+    private static Queue<Npc> failedNpcs = new ConcurrentLinkedQueue<>();
+
     /**
      * The manager for the map of game plugins.
      */
@@ -87,6 +101,11 @@ public final class World {
      */
     private static GameSyncExecutor executor = new GameSyncExecutor();
 
+    /**
+     * The profiler that measures the phases of the update sequence.
+     */
+    private static TickProfiler profiler = new TickProfiler();
+
     /**
      * The default constructor, will throw an
      * {@link UnsupportedOperationException} if instantiated.
@@ -107,6 +126,7 @@ public final class World {
      *             if any errors occur during the update sequence.
      */
     public static void sequence() throws Exception {
+        profiler.start();
 
         // Handle queued logins.
         for (int amount = 0; amount < GameConstants.LOGIN_THRESHOLD; amount++) {
@@ -116,6 +136,7 @@ public final class World {
             if (!players.add(player))
                 player.dispose();
         }
+        profiler.mark(TickPhase.LOGINS);
 
         // Handle queued logouts.
         int amount = 0;
@@ -129,9 +150,42 @@ public final class World {
                 amount++;
             }
         }
+        profiler.mark(TickPhase.LOGOUTS);
 
         // Handle task processing.
         taskQueue.sequence();
+        profiler.mark(TickPhase.TASKS);
+        taskQueue.sequenceOwned(executor);
+        profiler.mark(TickPhase.OWNED_TASKS);
+
+        // Resolve delayed attacks and hits.
+        long tick = taskQueue.getTick();
+        executor.sync(new GameSyncTask(NodeType.PLAYER, false) {
+            @Override
+            public void execute(int index) {
+                Player player = players.get(index);
+                try {
+                    player.resolveCombat(tick);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    World.getPlayers().remove(player);
+                }
+            }
+        });
+
+        executor.sync(new GameSyncTask(NodeType.NPC, false) {
+            @Override
+            public void execute(int index) {
+                Npc npc = npcs.get(index);
+                try {
+                    npc.resolveCombat(tick);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    World.getNpcs().remove(npc);
+                }
+            }
+        });
+        profiler.mark(TickPhase.COMBAT);
 
         // Handle synchronization tasks.
         executor.sync(new GameSyncTask(NodeType.PLAYER, false) {
@@ -148,6 +202,7 @@ public final class World {
                 }
             }
         });
+        profiler.mark(TickPhase.PLAYER_SEQUENCE);
 
         executor.sync(new GameSyncTask(NodeType.NPC, false) {
             @Override
@@ -162,40 +217,71 @@ public final class World {
                 }
             }
         });
+        profiler.mark(TickPhase.NPC_SEQUENCE);
 
-        executor.sync(new GameSyncTask(NodeType.PLAYER) {
+        sync(new GameSyncTask(NodeType.PLAYER) {
             @Override
             public void execute(int index) {
                 Player player = players.get(index);
                 synchronized (player) {
                     try {
-                        PlayerUpdating.update(player);
-                        NpcUpdating.update(player);
+                        PlayerUpdating.encode(player);
                     } catch (Exception e) {
                         e.printStackTrace();
-                        World.getPlayers().remove(player);
+                        failedPlayers.add(player);
                     }
                 }
             }
         });
 
-        executor.sync(new GameSyncTask(NodeType.PLAYER) {
+        sync(new GameSyncTask(NodeType.NPC) {
+            @Override
+            public void execute(int index) {
+                Npc npc = npcs.get(index);
+                synchronized (npc) {
+                    try {
+                        NpcUpdating.encode(npc);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        failedNpcs.add(npc);
+                    }
+                }
+            }
+        });
+        profiler.mark(TickPhase.ENCODING);
+
+        sync(new GameSyncTask(NodeType.PLAYER) {
+            @Override
+            public void execute(int index) {
+                Player player = players.get(index);
+                try {
+                    PlayerUpdating.update(player);
+                    NpcUpdating.update(player);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failedPlayers.add(player);
+                }
+            }
+        });
+        profiler.mark(TickPhase.UPDATING);
+
+        sync(new GameSyncTask(NodeType.PLAYER) {
             @Override
             public void execute(int index) {
                 Player player = players.get(index);
                 synchronized (player) {
                     try {
                         player.reset();
-                        player.setCachedUpdateBlock(null);
                     } catch (Exception e) {
                         e.printStackTrace();
-                        World.getPlayers().remove(player);
+                        failedPlayers.add(player);
                     }
                 }
             }
         });
+        profiler.mark(TickPhase.PLAYER_RESET);
 
-        executor.sync(new GameSyncTask(NodeType.NPC) {
+        sync(new GameSyncTask(NodeType.NPC) {
             @Override
             public void execute(int index) {
                 Npc npc = npcs.get(index);
@@ -204,11 +290,48 @@ public final class World {
                         npc.reset();
                     } catch (Exception e) {
                         e.printStackTrace();
-                        World.getNpcs().remove(npc);
+                        failedNpcs.add(npc);
                     }
                 }
             }
         });
+        profiler.mark(TickPhase.NPC_RESET);
+
+        sync(new GameSyncTask(NodeType.PLAYER) {
+            @Override
+            public void execute(int index) {
+                Player player = players.get(index);
+                try {
+                    player.getSession().flush();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failedPlayers.add(player);
+                }
+            }
+        });
+        profiler.mark(TickPhase.FLUSHING);
+        profiler.end();
+    }
+
+    /**
+     * Executes the concurrent phase {@code syncTask} on the executor. Tasks
+     * submitted or cancelled during the phase, such as deaths detected while
+     * encoding, are deferred and handled on the game thread once the phase
+     * has completed. Characters that failed during the phase are removed
+     * afterwards as well, so that the character lists and their spatial
+     * indexes are never modified while they are being read.
+     *
+     * @param syncTask
+     *            the phase to execute.
+     */
+    private static void sync(GameSyncTask syncTask) {
+        taskQueue.concurrently(() -> executor.sync(syncTask));
+        Player player;
+        while ((player = failedPlayers.poll()) != null)
+            players.remove(player);
+        Npc npc;
+        while ((npc = failedNpcs.poll()) != null)
+            npcs.remove(npc);
     }
 
     /**
@@ -339,7 +462,7 @@ public final class World {
      *            the message to send to all online players.
      */
     public static void message(String message) {
-        players.forEach(p -> p.getMessages().sendMessage("@red@[ANNOUNCEMENT]: " + message));
+        OutputMessages.sendAllMessage("@red@[ANNOUNCEMENT]: " + message);
     }
 
     /**
@@ -357,6 +480,7 @@ public final class World {
 
             // Close the channel no matter what happens, so it appears to the
             // player that they have logged out.
+            session.flush();
             session.getChannel().close();
 
             // If the player x-logged, don't log the player out. Keep the
@@ -373,13 +497,14 @@ public final class World {
             World.getTaskQueue().cancel(player);
             player.setSkillAction(false);
             World.getPlayers().remove(player);
+            session.releaseQueuedMessages();
             MinigameHandler.execute(player, m -> m.onLogout(player));
             player.getTradeSession().reset(false);
             player.getPrivateMessage().updateOtherList(false);
             if (FightCavesHandler.remove(player))
                 player.move(new Position(2399, 5177));
             player.save();
-            ConnectionHandler.remove(session.getHost());
+            session.unregister();
             session.setState(IOState.LOGGED_OUT);
             logger.info(session + " has logged out.");
         } catch (Exception e) {
@@ -415,6 +540,15 @@ public final class World {
         return service;
     }
 
+    /**
+     * Gets the profiler that measures the phases of the update sequence.
+     * 
+     * @return the tick profiler.
+     */
+    public static TickProfiler getProfiler() {
+        return profiler;
+    }
+
     /**
      * Gets the manager for the queue of game tasks.
      * 
@@ -442,4 +576,4 @@ public final class World {
     public static PluginHandler getPlugins() {
         return plugins;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
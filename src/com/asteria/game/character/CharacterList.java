@@ -43,6 +43,11 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
      */
     private final Queue<Integer> slotQueue = new ArrayDeque<>();
 
+    /**
+     * The spatial index of the elements within this collection.
+     */
+    private final RegionIndex<E> regions = new RegionIndex<>();
+
     /**
      * The finite capacity of this collection.
      */
@@ -84,6 +89,7 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
             e.setSlot(slot);
             characters[slot] = e;
             e.create();
+            regions.add(e);
             size++;
             return true;
         }
@@ -114,6 +120,7 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
 
         if (e.isRegistered() && characters[e.getSlot()] != null) {
             e.setRegistered(false);
+            regions.remove(e);
             e.dispose();
             characters[e.getSlot()] = null;
             slotQueue.add(e.getSlot());
@@ -193,6 +200,15 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
         return characters[slot];
     }
 
+    /**
+     * Gets the spatial index of the elements within this collection.
+     *
+     * @return the spatial index.
+     */
+    public RegionIndex<E> getRegions() {
+        return regions;
+    }
+
     /**
      * Determines the amount of elements stored in this collection.
      *
@@ -299,4 +315,4 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
             lastIndex = -1;
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
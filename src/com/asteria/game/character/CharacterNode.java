@@ -2,12 +2,14 @@ package com.asteria.game.character;
 
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import com.asteria.game.Node;
 import com.asteria.game.NodeType;
 import com.asteria.game.World;
 import com.asteria.game.character.combat.Combat;
 import com.asteria.game.character.combat.CombatBuilder;
+import com.asteria.game.character.combat.CombatSessionAttack;
 import com.asteria.game.character.combat.CombatStrategy;
 import com.asteria.game.character.combat.CombatType;
 import com.asteria.game.character.combat.effect.CombatEffectType;
@@ -16,7 +18,6 @@ import com.asteria.game.character.combat.magic.CombatWeaken;
 import com.asteria.game.character.npc.Npc;
 import com.asteria.game.character.player.Player;
 import com.asteria.game.location.Position;
-import com.asteria.task.Task;
 import com.asteria.utility.MutableNumber;
 import com.asteria.utility.Stopwatch;
 import com.google.common.base.Preconditions;
@@ -53,6 +54,30 @@ public abstract class CharacterNode extends Node {
      */
     private final UpdateFlags flags = new UpdateFlags();
 
+    /**
+     * The cache of update blocks encoded for this character on the current
+     * tick.
+     */
+    private final UpdateBlockCache updateBlocks = new UpdateBlockCache();
+
+    /**
+     * The queue of hits dealt to this character that are yet to be shown.
+     */
+    private final PendingQueue<Hit> pendingHits = new PendingQueue<>();
+
+    /**
+     * The queue of attacks sent by this character that are yet to land.
+     */
+    private final PendingQueue<CombatSessionAttack> pendingAttacks = new PendingQueue<>();
+
+    /**
+     * The action that deals a pending hit to this character once it is due.
+     */
+    private final Consumer<Hit> pendingHitAction = hit -> {
+        if (isRegistered())
+            sendDamage(hit);
+    };
+
     /**
      * The collection of stopwatches used for various timing operations.
      */
@@ -63,16 +88,32 @@ public abstract class CharacterNode extends Node {
      */
     private int slot = -1;
 
+    /**
+     * The key of the {@link RegionIndex} bucket this character is in.
+     */
+    private int regionKey = RegionIndex.NO_KEY;
+
     /**
      * The flag that determines if this character is visible or not.
      */
     private boolean visible = true;
 
+    /**
+     * The flag that determines if the visibility of this character has changed
+     * this sequence.
+     */
+    private boolean visibilityChanged;
+
     /**
      * The amount of poison damage this character has.
      */
     private final MutableNumber poisonDamage = new MutableNumber();
 
+    /**
+     * The amount of poison hits left before the poison damage decays.
+     */
+    private final MutableNumber poisonHits = new MutableNumber();
+
     /**
      * The type of poison that was previously applied.
      */
@@ -345,6 +386,7 @@ public abstract class CharacterNode extends Node {
         flags.reset();
         resetMovementQueue = false;
         needsPlacement = false;
+        visibilityChanged = false;
         animation = null;
     }
 
@@ -505,17 +547,7 @@ public abstract class CharacterNode extends Node {
      */
     private final void sendDamage(Hit hit, Hit hit2, Hit hit3) {
         sendDamage(hit, hit2);
-
-        World.submit(new Task(1, false) {
-            @Override
-            public void execute() {
-                this.cancel();
-                if (!CharacterNode.super.isRegistered()) {
-                    return;
-                }
-                sendDamage(hit3);
-            }
-        });
+        pendingHits.add(hit3, World.getTaskQueue().getTick() + 1);
     }
 
     /**
@@ -533,17 +565,33 @@ public abstract class CharacterNode extends Node {
      */
     private final void sendDamage(Hit hit, Hit hit2, Hit hit3, Hit hit4) {
         sendDamage(hit, hit2);
+        pendingHits.add(hit3, World.getTaskQueue().getTick() + 1);
+        pendingHits.add(hit4, World.getTaskQueue().getTick() + 1);
+    }
 
-        World.submit(new Task(1, false) {
-            @Override
-            public void execute() {
-                this.cancel();
-                if (!CharacterNode.super.isRegistered()) {
-                    return;
-                }
-                sendDamage(hit3, hit4);
-            }
-        });
+    /**
+     * Queues {@code attack} sent by this character to land once {@code delay}
+     * sequences have elapsed.
+     *
+     * @param attack
+     *            the attack to queue.
+     * @param delay
+     *            the delay of the attack, in sequences.
+     */
+    public final void queueAttack(CombatSessionAttack attack, int delay) {
+        pendingAttacks.add(attack, World.getTaskQueue().getTick() + Math.max(delay, 1));
+    }
+
+    /**
+     * Resolves all of the attacks sent by this character and the hits dealt to
+     * this character that are due on {@code sequence}.
+     *
+     * @param sequence
+     *            the current sequence.
+     */
+    public final void resolveCombat(long sequence) {
+        pendingAttacks.drain(sequence, CombatSessionAttack::execute);
+        pendingHits.drain(sequence, pendingHitAction);
     }
 
     /**
@@ -621,6 +669,25 @@ public abstract class CharacterNode extends Node {
         this.slot = slot;
     }
 
+    /**
+     * Gets the key of the {@link RegionIndex} bucket this character is in.
+     *
+     * @return the key of the bucket.
+     */
+    final int getRegionKey() {
+        return regionKey;
+    }
+
+    /**
+     * Sets the value for {@link CharacterNode#regionKey}.
+     *
+     * @param regionKey
+     *            the new value to set.
+     */
+    final void setRegionKey(int regionKey) {
+        this.regionKey = regionKey;
+    }
+
     /**
      * Gets the amount of poison damage this character has.
      *
@@ -630,6 +697,15 @@ public abstract class CharacterNode extends Node {
         return poisonDamage;
     }
 
+    /**
+     * Gets the amount of poison hits left before the poison damage decays.
+     *
+     * @return the amount of poison hits left.
+     */
+    public final MutableNumber getPoisonHits() {
+        return poisonHits;
+    }
+
     /**
      * Gets the primary direction this character is facing.
      *
@@ -879,9 +955,22 @@ public abstract class CharacterNode extends Node {
      *            the new value to set.
      */
     public void setVisible(boolean visible) {
+        if (this.visible != visible)
+            visibilityChanged = true;
         this.visible = visible;
     }
 
+    /**
+     * Determines if the visibility of this character has changed this
+     * sequence.
+     *
+     * @return {@code true} if the visibility has changed, {@code false}
+     *         otherwise.
+     */
+    public final boolean isVisibilityChanged() {
+        return visibilityChanged;
+    }
+
     /**
      * Gets the combat builder that will handle all combat operations for this
      * character.
@@ -922,6 +1011,16 @@ public abstract class CharacterNode extends Node {
         return flags;
     }
 
+    /**
+     * Gets the cache of update blocks encoded for this character on the
+     * current tick.
+     *
+     * @return the cache of update blocks.
+     */
+    public final UpdateBlockCache getUpdateBlocks() {
+        return updateBlocks;
+    }
+
     /**
      * Gets the timer that records the difference in time between now and the
      * last time the player was in combat.
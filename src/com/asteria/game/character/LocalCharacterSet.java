@@ -0,0 +1,213 @@
+package com.asteria.game.character;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A set that provides functionality for tracking the characters local to a
+ * player. Membership is tracked in a bit set indexed by the slot of each
+ * character, while the characters themselves are kept in an array in the order
+ * they were added, which is the order the client expects them to be updated
+ * in. Adding, removing through the iterator and lookups are all done in
+ * constant time without allocating any nodes.
+ * <p>
+ * Removed elements leave an empty space in the array rather than shifting the
+ * remaining elements, the array is compacted once it fills up. Characters are
+ * kept by reference so that characters that have been unregistered since they
+ * were added can still be found and removed.
+ *
+ * @author lare96 <http://github.com/lare96>
+ * @param <E>
+ *            the type of character being tracked with this set.
+ */
+public final class LocalCharacterSet<E extends CharacterNode> extends AbstractSet<E> {
+
+    /**
+     * The maximum amount of characters that can be tracked at once.
+     */
+    public static final int MAXIMUM_SIZE = 255;
+
+    /**
+     * The bit set of the slots of the characters within this set.
+     */
+    private final long[] bits;
+
+    /**
+     * The characters within this set in the order they were added, may contain
+     * empty spaces left behind by removed characters.
+     */
+    private final E[] characters;
+
+    /**
+     * The amount of spaces in the backing array that have been used.
+     */
+    private int length;
+
+    /**
+     * The amount of characters within this set.
+     */
+    private int size;
+
+    /**
+     * Creates a new {@link LocalCharacterSet}.
+     *
+     * @param capacity
+     *            the capacity of the character list the characters will be
+     *            tracked from.
+     */
+    @SuppressWarnings("unchecked")
+    public LocalCharacterSet(int capacity) {
+        this.bits = new long[(capacity + 63) >>> 6];
+        this.characters = (E[]) new CharacterNode[MAXIMUM_SIZE];
+    }
+
+    @Override
+    public boolean add(E e) {
+        Objects.requireNonNull(e);
+        int slot = e.getSlot();
+        if (isSet(slot))
+            return false;
+        if (length == characters.length) {
+            compact();
+            if (length == characters.length)
+                return false;
+        }
+        bits[slot >>> 6] |= 1L << slot;
+        characters[length++] = e;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof CharacterNode) || !isSet(((CharacterNode) o).getSlot()))
+            return false;
+        for (int index = 0; index < length; index++) {
+            if (characters[index] == o) {
+                remove(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof CharacterNode))
+            return false;
+        return isSet(((CharacterNode) o).getSlot());
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for (int index = 0; index < length; index++) {
+            E e = characters[index];
+            if (e != null)
+                action.accept(e);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new LocalCharacterSetIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(bits, 0L);
+        Arrays.fill(characters, 0, length, null);
+        length = 0;
+        size = 0;
+    }
+
+    /**
+     * Determines if the bit for {@code slot} is set.
+     *
+     * @param slot
+     *            the slot to determine this for.
+     * @return {@code true} if the bit is set, {@code false} otherwise.
+     */
+    private boolean isSet(int slot) {
+        return (bits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Removes the character at {@code index} in the backing array, leaving an
+     * empty space in its place.
+     *
+     * @param index
+     *            the index of the character to remove.
+     */
+    private void remove(int index) {
+        int slot = characters[index].getSlot();
+        bits[slot >>> 6] &= ~(1L << slot);
+        characters[index] = null;
+        size--;
+    }
+
+    /**
+     * Shifts all of the characters in the backing array over the empty spaces
+     * left behind by removed characters, preserving their order.
+     */
+    private void compact() {
+        int newLength = 0;
+        for (int index = 0; index < length; index++) {
+            E e = characters[index];
+            if (e != null)
+                characters[newLength++] = e;
+        }
+        Arrays.fill(characters, newLength, length, null);
+        length = newLength;
+    }
+
+    /**
+     * An {@link Iterator} implementation that will iterate over the characters
+     * within this set in the order they were added.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private final class LocalCharacterSetIterator implements Iterator<E> {
+
+        /**
+         * The index of the next character to return.
+         */
+        private int cursor;
+
+        /**
+         * The index of the last character returned.
+         */
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            while (cursor < length && characters[cursor] == null)
+                cursor++;
+            return cursor < length;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext())
+                throw new NoSuchElementException("There are no elements left to iterate over.");
+            last = cursor++;
+            return characters[last];
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1)
+                throw new IllegalStateException("remove() can only be called once after each call to next().");
+            LocalCharacterSet.this.remove(last);
+            last = -1;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Optional;
 import com.asteria.game.NodeType;
 import com.asteria.game.World;
 import com.asteria.game.character.combat.Combat;
+import com.asteria.game.character.npc.Npc;
 import com.asteria.game.character.player.Player;
 import com.asteria.game.location.Position;
 import com.asteria.task.Task;
@@ -72,12 +73,28 @@ public final class MovementQueue {
 
     /**
      * Executes movement processing which primarily consists of polling
-     * waypoints, and updating the map region.
+     * waypoints, and updating the map region. The character is moved into
+     * the correct bucket of its {@link RegionIndex} afterwards.
      *
      * @throws Exception
      *             if any errors occur while sequencing movement.
      */
     public void sequence() throws Exception {
+        move();
+        if (character.getType() == NodeType.PLAYER) {
+            World.getPlayers().getRegions().update((Player) character);
+        } else if (character.getType() == NodeType.NPC) {
+            World.getNpcs().getRegions().update((Npc) character);
+        }
+    }
+
+    /**
+     * Polls the waypoints of this movement queue and moves the character.
+     *
+     * @throws Exception
+     *             if any errors occur while moving the character.
+     */
+    private void move() throws Exception {
         if (lockMovement || character.isFrozen()) {
             return;
         }
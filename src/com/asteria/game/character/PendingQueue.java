@@ -0,0 +1,115 @@
+package com.asteria.game.character;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A queue of elements that are each due on a certain sequence, used to hold the
+ * delayed hits and attacks of a character until they are resolved. Elements
+ * are stored in flat arrays that are reused from sequence to sequence, so
+ * queueing an element does not allocate anything unless the queue has to
+ * grow.
+ *
+ * @author lare96 <http://github.com/lare96>
+ * @param <E>
+ *            the type of element within this queue.
+ */
+public final class PendingQueue<E> {
+
+    /**
+     * The default capacity of this queue.
+     */
+    private static final int DEFAULT_CAPACITY = 4;
+
+    /**
+     * The elements within this queue, in the order they were added.
+     */
+    private Object[] elements = new Object[DEFAULT_CAPACITY];
+
+    /**
+     * The sequences the elements within this queue are due on.
+     */
+    private long[] due = new long[DEFAULT_CAPACITY];
+
+    /**
+     * The amount of elements within this queue.
+     */
+    private int size;
+
+    /**
+     * Adds {@code e} to this queue, due on the sequence {@code sequence}.
+     *
+     * @param e
+     *            the element to add.
+     * @param sequence
+     *            the sequence the element is due on.
+     */
+    public void add(E e, long sequence) {
+        Objects.requireNonNull(e);
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+            due = Arrays.copyOf(due, size * 2);
+        }
+        elements[size] = e;
+        due[size] = sequence;
+        size++;
+    }
+
+    /**
+     * Removes every element that is due on or before {@code sequence} and
+     * passes it to {@code action}, in the order the elements were added.
+     * Elements added by {@code action} are not drained until the next call, and
+     * any errors thrown by {@code action} are handled for each element.
+     *
+     * @param sequence
+     *            the current sequence.
+     * @param action
+     *            the action to perform on each element that is due.
+     */
+    @SuppressWarnings("unchecked")
+    public void drain(long sequence, Consumer<? super E> action) {
+        int amount = size;
+        int kept = 0;
+        for (int index = 0; index < amount; index++) {
+            Object e = elements[index];
+            long sequenceDue = due[index];
+            elements[index] = null;
+            if (sequenceDue <= sequence) {
+                try {
+                    action.accept((E) e);
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            } else {
+                elements[kept] = e;
+                due[kept] = sequenceDue;
+                kept++;
+            }
+        }
+
+        // Move any elements added while draining down behind the ones kept.
+        int added = size - amount;
+        System.arraycopy(elements, amount, elements, kept, added);
+        System.arraycopy(due, amount, due, kept, added);
+        Arrays.fill(elements, kept + added, size, null);
+        size = kept + added;
+    }
+
+    /**
+     * Removes every element from this queue.
+     */
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Determines if this queue is empty.
+     *
+     * @return {@code true} if this queue is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
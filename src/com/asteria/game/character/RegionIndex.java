@@ -0,0 +1,267 @@
+package com.asteria.game.character;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.asteria.game.location.Position;
+
+/**
+ * A spatial index that buckets characters by the {@code 16x16} area of tiles
+ * they are standing in, so that the characters viewable from a position can be
+ * found by only looking at the neighbouring buckets instead of every single
+ * character in the world.
+ * <p>
+ * <p>
+ * Buckets are held in an open addressing table keyed by primitive bucket keys.
+ * A bucket is kept once it has been created, even when it becomes empty, so
+ * the table never has to handle deletions and only grows with the amount of
+ * distinct areas characters have been in.
+ * <p>
+ * <p>
+ * The index is kept up to date by the {@link CharacterList} that owns it, and
+ * by the {@link MovementQueue} of every character. Modifications are
+ * synchronized, but lookups are not and therefore must only be made during
+ * concurrent phases of the world sequence, in which characters are never
+ * added, moved, or removed.
+ *
+ * @author lare96 <http://github.com/lare96>
+ * @param <E>
+ *            the type of character being indexed.
+ */
+public final class RegionIndex<E extends CharacterNode> {
+
+    /**
+     * The key of characters that are not within this index, also used to mark
+     * free slots within the table.
+     */
+    static final int NO_KEY = -1;
+
+    /**
+     * The amount of bits to shift a coordinate by to get its bucket.
+     */
+    private static final int BUCKET_SHIFT = 4;
+
+    /**
+     * The furthest distance away characters can be from each other to be
+     * viewable.
+     */
+    private static final int VIEWING_DISTANCE = 15;
+
+    /**
+     * The initial capacity of the table, must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * The bucket keys of the table, free slots hold {@link #NO_KEY}.
+     */
+    private int[] keys = new int[INITIAL_CAPACITY];
+
+    /**
+     * The buckets of the table, at the same slots as their keys.
+     */
+    private Object[] buckets = new Object[INITIAL_CAPACITY];
+
+    /**
+     * The amount of buckets within the table.
+     */
+    private int size;
+
+    /**
+     * Creates a new {@link RegionIndex}.
+     */
+    RegionIndex() {
+        Arrays.fill(keys, NO_KEY);
+    }
+
+    /**
+     * Adds {@code e} to the bucket containing its current position.
+     *
+     * @param e
+     *            the character to add.
+     */
+    synchronized void add(E e) {
+        int key = key(e.getPosition());
+        int slot = slot(key);
+        if (keys[slot] == NO_KEY) {
+            if ((size + 1) << 1 > keys.length) {
+                resize();
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            buckets[slot] = new ArrayList<E>();
+            size++;
+        }
+        bucket(slot).add(e);
+        e.setRegionKey(key);
+    }
+
+    /**
+     * Removes {@code e} from the bucket it was last added to.
+     *
+     * @param e
+     *            the character to remove.
+     */
+    synchronized void remove(E e) {
+        int key = e.getRegionKey();
+        if (key == NO_KEY)
+            return;
+        int slot = slot(key);
+        if (keys[slot] != NO_KEY)
+            bucket(slot).remove(e);
+        e.setRegionKey(NO_KEY);
+    }
+
+    /**
+     * Moves {@code e} into the bucket containing its current position, if it
+     * has changed since it was last added to this index.
+     *
+     * @param e
+     *            the character to update.
+     */
+    public synchronized void update(E e) {
+        int key = e.getRegionKey();
+        if (key == NO_KEY || key == key(e.getPosition()))
+            return;
+        remove(e);
+        add(e);
+    }
+
+    /**
+     * Retrieves every character within this index that is viewable from
+     * {@code position} into {@code viewable}, which is cleared first. The list
+     * is owned by the caller so it can be reused between lookups.
+     *
+     * @param position
+     *            the position to retrieve the viewable characters from.
+     * @param viewable
+     *            the list to retrieve the viewable characters into.
+     */
+    public void getViewable(Position position, List<E> viewable) {
+        find(position, viewable, false);
+    }
+
+    /**
+     * Retrieves every character within this index that {@code position} is
+     * viewable from into {@code viewers}, which is cleared first. The list is
+     * owned by the caller so it can be reused between lookups.
+     *
+     * @param position
+     *            the position to retrieve the viewers of.
+     * @param viewers
+     *            the list to retrieve the viewers into.
+     */
+    public void getViewers(Position position, List<E> viewers) {
+        find(position, viewers, true);
+    }
+
+    /**
+     * Retrieves every character within this index that is viewable from
+     * {@code position}, or that {@code position} is viewable from, into
+     * {@code found}, which is cleared first.
+     *
+     * @param position
+     *            the position to retrieve the characters around.
+     * @param found
+     *            the list to retrieve the characters into.
+     * @param viewers
+     *            if the viewers of {@code position} should be retrieved
+     *            instead of the characters viewable from it.
+     */
+    private void find(Position position, List<E> found, boolean viewers) {
+        found.clear();
+        int minX = (position.getX() - VIEWING_DISTANCE) >> BUCKET_SHIFT;
+        int maxX = (position.getX() + VIEWING_DISTANCE) >> BUCKET_SHIFT;
+        int minY = (position.getY() - VIEWING_DISTANCE) >> BUCKET_SHIFT;
+        int maxY = (position.getY() + VIEWING_DISTANCE) >> BUCKET_SHIFT;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                int slot = slot(key(x, y, position.getZ()));
+                if (keys[slot] == NO_KEY)
+                    continue;
+                List<E> bucket = bucket(slot);
+                for (int i = 0; i < bucket.size(); i++) {
+                    E e = bucket.get(i);
+                    if (viewers ? position.isViewableFrom(e.getPosition()) : e.getPosition().isViewableFrom(position))
+                        found.add(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the slot of the table that either holds the bucket with
+     * {@code key}, or is the free slot it would be placed in.
+     *
+     * @param key
+     *            the bucket key to determine the slot for.
+     * @return the slot of the table.
+     */
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keys[slot] != NO_KEY && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Gets the bucket at {@code slot} of the table.
+     *
+     * @param slot
+     *            the slot of the bucket.
+     * @return the bucket.
+     */
+    @SuppressWarnings("unchecked")
+    private List<E> bucket(int slot) {
+        return (List<E>) buckets[slot];
+    }
+
+    /**
+     * Doubles the capacity of the table, placing every bucket into its new
+     * slot.
+     */
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldBuckets = buckets;
+        keys = new int[oldKeys.length << 1];
+        buckets = new Object[oldBuckets.length << 1];
+        Arrays.fill(keys, NO_KEY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == NO_KEY)
+                continue;
+            int slot = slot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            buckets[slot] = oldBuckets[i];
+        }
+    }
+
+    /**
+     * Determines the key of the bucket containing {@code position}.
+     *
+     * @param position
+     *            the position to determine the key for.
+     * @return the key of the bucket.
+     */
+    private static int key(Position position) {
+        return key(position.getX() >> BUCKET_SHIFT, position.getY() >> BUCKET_SHIFT, position.getZ());
+    }
+
+    /**
+     * Determines the key of the bucket at {@code x}, {@code y} on plane
+     * {@code z}.
+     *
+     * @param x
+     *            the {@code X} coordinate of the bucket.
+     * @param y
+     *            the {@code Y} coordinate of the bucket.
+     * @param z
+     *            the plane of the bucket.
+     * @return the key of the bucket.
+     */
+    private static int key(int x, int y, int z) {
+        return ((z & 0x3) << 24) | ((x & 0xfff) << 12) | (y & 0xfff);
+    }
+}
@@ -0,0 +1,113 @@
+package com.asteria.game.character;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import com.asteria.net.message.MessageBuilder;
+
+/**
+ * The cache of update blocks encoded for a {@link CharacterNode} on the current
+ * tick. The blocks are encoded exactly once per tick before any updating is
+ * done, after which they are copied into the update messages of every viewer
+ * without any further encoding or locking. The {@link BlockType#ADDED} block
+ * is only encoded for characters that can be added by a viewer this tick. The
+ * backing buffers are reused on every tick, and are not allocated from the
+ * buffer pool because they live for as long as the character does.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class UpdateBlockCache {
+
+    /**
+     * The initial capacity of each of the backing buffers.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The backing buffers that the blocks are encoded into, lazily created.
+     */
+    private final MessageBuilder[] blocks = new MessageBuilder[BlockType.values().length];
+
+    /**
+     * The flags that determine which blocks have been encoded this tick.
+     */
+    private final boolean[] encoded = new boolean[blocks.length];
+
+    /**
+     * Prepares the block of {@code type} to be encoded into, discarding any
+     * data previously encoded into it.
+     *
+     * @param type
+     *            the type of block to prepare.
+     * @return the buffer to encode the block into.
+     */
+    public MessageBuilder prepare(BlockType type) {
+        int index = type.ordinal();
+        if (blocks[index] == null)
+            blocks[index] = MessageBuilder.create(Unpooled.buffer(INITIAL_CAPACITY));
+        blocks[index].buffer().clear();
+        encoded[index] = true;
+        return blocks[index];
+    }
+
+    /**
+     * Gets the block of {@code type} that was encoded this tick.
+     *
+     * @param type
+     *            the type of block to get.
+     * @return the encoded block.
+     * @throws IllegalStateException
+     *             if the block was not encoded this tick.
+     */
+    public ByteBuf get(BlockType type) {
+        if (!encoded[type.ordinal()])
+            throw new IllegalStateException("Update block " + type + " was not encoded this tick.");
+        return blocks[type.ordinal()].buffer();
+    }
+
+    /**
+     * Determines if the block of {@code type} was encoded this tick.
+     *
+     * @param type
+     *            the type of block to determine this for.
+     * @return {@code true} if the block was encoded, {@code false} otherwise.
+     */
+    public boolean isEncoded(BlockType type) {
+        return encoded[type.ordinal()];
+    }
+
+    /**
+     * Marks every block as not encoded, so they can be encoded again on the
+     * next tick.
+     */
+    public void clear() {
+        for (int index = 0; index < encoded.length; index++)
+            encoded[index] = false;
+    }
+
+    /**
+     * The enumerated type whose elements represent the variants of update
+     * blocks that can be encoded for a character.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    public enum BlockType {
+
+        /**
+         * The block sent to every viewer that already has the character in
+         * their local list.
+         */
+        SHARED,
+
+        /**
+         * The block a player receives for themselves, which excludes chat.
+         */
+        SELF,
+
+        /**
+         * The block sent to viewers that are adding the character to their
+         * local list, which forces appearance.
+         */
+        ADDED
+    }
+}
@@ -3,7 +3,6 @@ package com.asteria.game.character.combat;
 import java.util.Optional;
 
 import com.asteria.game.NodeType;
-import com.asteria.game.World;
 import com.asteria.game.character.combat.weapon.CombatSpecial;
 import com.asteria.game.character.npc.Npc;
 import com.asteria.game.character.player.Player;
@@ -93,7 +92,7 @@ public final class CombatSession extends Task {
                         builder.determineStrategy();
                     }
                 }
-                World.submit(new CombatSessionAttack(builder, data));
+                new CombatSessionAttack(builder, data).submit();
             }
             builder.resetAttackTimer();
             builder.getCharacter().faceCharacter(builder.getVictim());
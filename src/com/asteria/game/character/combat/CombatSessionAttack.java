@@ -15,16 +15,16 @@ import com.asteria.game.item.Item;
 import com.asteria.game.item.ItemNode;
 import com.asteria.game.item.ItemNodeManager;
 import com.asteria.game.location.Location;
-import com.asteria.task.Task;
 import com.asteria.utility.RandomGen;
 
 /**
  * An attack on the builder's victim that is sent completely separate from the
- * main combat session.
+ * main combat session. Attacks that do not land instantly are queued on the
+ * attacker until they are resolved.
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class CombatSessionAttack extends Task {
+public final class CombatSessionAttack {
 
     /**
      * The random generator instance that will generate random numbers.
@@ -55,19 +55,31 @@ public final class CombatSessionAttack extends Task {
      *            the combat data from the combat session.
      */
     public CombatSessionAttack(CombatBuilder builder, CombatSessionData data) {
-        super(Combat.getDelay(data.getType()), data.getType() == CombatType.MELEE);
         this.builder = builder;
         this.data = data;
     }
 
-    @Override
+    /**
+     * Sends this attack, melee attacks land instantly while all other attacks
+     * are queued on the attacker until their delay has elapsed.
+     */
+    public void submit() {
+        if (data.getType() == CombatType.MELEE) {
+            execute();
+            return;
+        }
+        builder.getCharacter().queueAttack(this, Combat.getDelay(data.getType()));
+    }
+
+    /**
+     * Lands this attack on the builder's victim.
+     */
     public void execute() {
         CharacterNode attacker = builder.getCharacter();
         CharacterNode victim = builder.getVictim();
 
         if (attacker == null || victim == null || attacker.isDead() || !attacker.isRegistered() || victim.isDead() || !victim
             .isRegistered()) {
-            this.cancel();
             return;
         }
         data = data.preAttack();
@@ -110,7 +122,6 @@ public final class CombatSessionAttack extends Task {
         if (victim.isAutoRetaliate() && !victim.getCombatBuilder().isAttacking()) {
             victim.getCombatBuilder().attack(attacker);
         }
-        this.cancel();
     }
 
     /**
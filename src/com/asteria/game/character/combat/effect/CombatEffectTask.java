@@ -1,15 +1,15 @@
 package com.asteria.game.character.combat.effect;
 
 import com.asteria.game.character.CharacterNode;
-import com.asteria.task.Task;
+import com.asteria.task.OwnedTask;
 
 /**
- * The {@link Task} implementation that provides processing for
+ * The {@link OwnedTask} implementation that provides processing for
  * {@link CombatEffect}s.
  * 
  * @author lare96 <http://github.org/lare96>
  */
-public final class CombatEffectTask extends Task {
+public final class CombatEffectTask extends OwnedTask {
 
     /**
      * The character that this task is for.
@@ -30,8 +30,7 @@ public final class CombatEffectTask extends Task {
      *            the combat effect that is being processed.
      */
     public CombatEffectTask(CharacterNode c, CombatEffect effect) {
-        super(effect.getDelay(), false);
-        super.attach(c);
+        super(c, effect.getDelay(), false);
         this.c = c;
         this.effect = effect;
     }
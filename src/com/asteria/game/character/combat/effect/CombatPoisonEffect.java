@@ -26,9 +26,9 @@ public final class CombatPoisonEffect extends CombatEffect {
     public static final Map<Integer, PoisonType> TYPES = new HashMap<>();
 
     /**
-     * The amount of times this player has been hit.
+     * The amount of poison hits dealt before the poison damage decays.
      */
-    private int amount;
+    private static final int HITS_PER_DECAY = 4;
 
     /**
      * Creates a new {@link CombatPoisonEffect}.
@@ -48,6 +48,7 @@ public final class CombatPoisonEffect extends CombatEffect {
             player.getMessages().sendMessage("You have been poisoned!");
         }
         t.getPoisonDamage().set(t.getPoisonType().getDamage());
+        t.getPoisonHits().set(HITS_PER_DECAY);
         return true;
     }
 
@@ -58,10 +59,12 @@ public final class CombatPoisonEffect extends CombatEffect {
 
     @Override
     public void process(CharacterNode t) {
-        amount--;
         t.damage(new Hit(t.getPoisonDamage().get(), HitType.POISON));
-        if (amount == 0) {
-            amount = 4;
+
+        // The counter lives on the character, this effect is shared by every
+        // poisoned character and processed on their own owned task lanes.
+        if (t.getPoisonHits().decrementAndGet() <= 0) {
+            t.getPoisonHits().set(HITS_PER_DECAY);
             t.getPoisonDamage().decrementAndGet();
         }
     }
@@ -3,7 +3,7 @@ package com.asteria.game.character.combat.prayer;
 import com.asteria.game.character.combat.Combat;
 import com.asteria.game.character.player.Player;
 import com.asteria.game.character.player.skill.Skills;
-import com.asteria.task.Task;
+import com.asteria.task.OwnedTask;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 
@@ -13,7 +13,7 @@ import com.google.common.collect.Multiset;
  * 
  * @author lare96 <http://github.org/lare96>
  */
-public final class CombatPrayerTask extends Task {
+public final class CombatPrayerTask extends OwnedTask {
 
     /**
      * The player to drain prayer points.
@@ -32,8 +32,7 @@ public final class CombatPrayerTask extends Task {
      *            the player to drain prayer points.
      */
     public CombatPrayerTask(Player player) {
-        super(1, false);
-        super.attach(player);
+        super(player, 1, false);
         this.player = player;
     }
 
@@ -1,9 +1,14 @@
 package com.asteria.game.character.npc;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import com.asteria.game.World;
 import com.asteria.game.character.Flag;
+import com.asteria.game.character.LocalCharacterSet;
+import com.asteria.game.character.UpdateBlockCache;
+import com.asteria.game.character.UpdateBlockCache.BlockType;
 import com.asteria.game.character.player.Player;
 import com.asteria.game.location.Position;
 import com.asteria.net.ByteOrder;
@@ -19,6 +24,12 @@ import com.asteria.utility.BitMask;
  */
 public final class NpcUpdating {
 
+    /**
+     * The list of viewable NPCs, reused for every lookup made by the same
+     * updating thread.
+     */
+    private static final ThreadLocal<List<Npc>> VIEWABLE = ThreadLocal.withInitial(ArrayList::new);
+
     /**
      * The default constructor.
      *
@@ -29,6 +40,23 @@ public final class NpcUpdating {
         throw new UnsupportedOperationException("This class cannot be " + "instantiated!");
     }
 
+    /**
+     * The method that encodes the update block of {@code npc} for the current
+     * tick. This must be done for every NPC before any player is updated, so
+     * that the block is encoded exactly once per tick.
+     *
+     * @param npc
+     *            the NPC to encode the update block of.
+     * @throws Exception
+     *             if any errors occur while encoding the update block.
+     */
+    public static void encode(Npc npc) throws Exception {
+        UpdateBlockCache cache = npc.getUpdateBlocks();
+        cache.clear();
+        if (npc.getFlags().needsUpdate())
+            NpcUpdating.updateState(cache.prepare(BlockType.SHARED), npc);
+    }
+
     /**
      * The method that performs updating on NPCs for {@code player}.
      *
@@ -40,15 +68,42 @@ public final class NpcUpdating {
     public static void update(Player player) throws Exception {
         MessageBuilder out = MessageBuilder.create(2048);
         MessageBuilder block = MessageBuilder.create(1024);
+        try {
+            NpcUpdating.update(player, out, block);
+        } catch (Exception e) {
+            out.release();
+            throw e;
+        } finally {
+            block.release();
+        }
+        player.getSession().queue(out);
+    }
+
+    /**
+     * Writes the NPC update message for {@code player} into {@code out}.
+     *
+     * @param player
+     *            the player NPCs are being updated for.
+     * @param out
+     *            the buffer the message will be written to.
+     * @param block
+     *            the buffer the update blocks will be written to.
+     * @throws Exception
+     *             if any errors occur while updating NPCs for the player.
+     */
+    private static void update(Player player, MessageBuilder out, MessageBuilder block) throws Exception {
         out.newVarShortMessage(65);
-        out.startBitAccess();
+
+        // At most 8 bits for the local NPC count, 7 for every local NPC, 38 for
+        // each of the 15 NPCs that can be added, and 14 for the block marker.
+        out.startBitAccess(22 + (player.getLocalNpcs().size() * 7) + (15 * 38));
         out.putBits(8, player.getLocalNpcs().size());
         for (Iterator<Npc> i = player.getLocalNpcs().iterator(); i.hasNext();) {
             Npc npc = i.next();
             if (npc.getPosition().isViewableFrom(player.getPosition()) && npc.isVisible()) {
                 NpcUpdating.updateNpcMovement(out, npc);
                 if (npc.getFlags().needsUpdate()) {
-                    NpcUpdating.updateState(block, npc);
+                    block.putBytes(npc.getUpdateBlocks().get(BlockType.SHARED));
                 }
             } else {
                 out.putBit(true);
@@ -57,17 +112,16 @@ public final class NpcUpdating {
             }
         }
         int added = 0;
-        for (Npc npc : World.getNpcs()) {
-            if (added == 15 || player.getLocalNpcs().size() >= 255)
+        List<Npc> viewable = VIEWABLE.get();
+        World.getNpcs().getRegions().getViewable(player.getPosition(), viewable);
+        for (Npc npc : viewable) {
+            if (added == 15 || player.getLocalNpcs().size() >= LocalCharacterSet.MAXIMUM_SIZE)
                 break;
-            if (npc == null)
-                continue;
-            if (npc.getPosition().isViewableFrom(player.getPosition()) && npc.isVisible()) {
+            if (npc.isVisible()) {
                 if (player.getLocalNpcs().add(npc)) {
-                    npc.getFlags().set(Flag.APPEARANCE);
                     addNpc(out, player, npc);
                     if (npc.getFlags().needsUpdate()) {
-                        NpcUpdating.updateState(block, npc);
+                        block.putBytes(npc.getUpdateBlocks().get(BlockType.SHARED));
                     }
                     added++;
                 }
@@ -81,7 +135,6 @@ public final class NpcUpdating {
             out.endBitAccess();
         }
         out.endVarShortMessage();
-        player.getSession().queue(out);
     }
 
     /**
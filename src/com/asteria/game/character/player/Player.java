@@ -1,11 +1,8 @@
 package com.asteria.game.character.player;
 
-import io.netty.buffer.ByteBuf;
-
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -19,6 +16,7 @@ import com.asteria.game.World;
 import com.asteria.game.character.CharacterNode;
 import com.asteria.game.character.Flag;
 import com.asteria.game.character.Hit;
+import com.asteria.game.character.LocalCharacterSet;
 import com.asteria.game.character.combat.Combat;
 import com.asteria.game.character.combat.CombatStrategy;
 import com.asteria.game.character.combat.CombatType;
@@ -34,6 +32,7 @@ import com.asteria.game.character.combat.weapon.FightType;
 import com.asteria.game.character.npc.Npc;
 import com.asteria.game.character.npc.NpcAggression;
 import com.asteria.game.character.player.content.PrivateMessage;
+import com.asteria.game.character.player.content.RestoreStatTask;
 import com.asteria.game.character.player.content.Spellbook;
 import com.asteria.game.character.player.content.TeleportSpell;
 import com.asteria.game.character.player.content.TradeSession;
@@ -86,14 +85,14 @@ public final class Player extends CharacterNode {
     private static Logger logger = LoggerUtils.getLogger(Player.class);
 
     /**
-     * The hash collection of the local players.
+     * The collection of the local players.
      */
-    private final Set<Player> localPlayers = new LinkedHashSet<>(255);
+    private final LocalCharacterSet<Player> localPlayers = new LocalCharacterSet<>(World.getPlayers().capacity());
 
     /**
-     * The hash collection of the local npcs.
+     * The collection of the local npcs.
      */
-    private final Set<Npc> localNpcs = new LinkedHashSet<>(255);
+    private final LocalCharacterSet<Npc> localNpcs = new LocalCharacterSet<>(World.getNpcs().capacity());
 
     /**
      * The hash collection of friends.
@@ -370,9 +369,10 @@ public final class Player extends CharacterNode {
     private int playerNpc = -1;
 
     /**
-     * The cached player update block for updating.
+     * The cached appearance block of this player, or {@code null} if it needs
+     * to be encoded again.
      */
-    private ByteBuf cachedUpdateBlock;
+    private byte[] appearanceBlock;
 
     /**
      * The username hash for this player.
@@ -384,6 +384,11 @@ public final class Player extends CharacterNode {
      */
     private boolean updateRegion;
 
+    /**
+     * If this player could not add every viewable player on the last update.
+     */
+    private boolean additionsPending;
+
     /**
      * Creates a new {@link Player}.
      *
@@ -433,6 +438,7 @@ public final class Player extends CharacterNode {
             if ($it.onLogin(this))
                 World.submit(new CombatEffectTask(this, $it));
         });
+        World.submit(new RestoreStatTask(this));
         encoder.sendMessage(GameConstants.WELCOME_MESSAGE);
         MinigameHandler.execute(this, m -> m.onLogin(this));
         WeaponInterface.execute(this, equipment.get(Equipment.WEAPON_SLOT));
@@ -669,6 +675,7 @@ public final class Player extends CharacterNode {
         getMovementQueue().reset();
         encoder.sendCloseWindows();
         super.setPosition(position.copy());
+        World.getPlayers().getRegions().update(this);
         setResetMovementQueue(true);
         setNeedsPlacement(true);
         encoder.sendMapRegion();
@@ -717,13 +724,16 @@ public final class Player extends CharacterNode {
         OutputMessages encoder = getMessages();
         if (Location.inWilderness(this)) {
             int calculateY = this.getPosition().getY() > 6400 ? super.getPosition().getY() - 6400 : super.getPosition().getY();
-            wildernessLevel = (((calculateY - 3520) / 8) + 1);
+            int level = (((calculateY - 3520) / 8) + 1);
             if (!wildernessInterface) {
                 encoder.sendWalkable(197);
                 encoder.sendContextMenu(3, "Attack");
                 wildernessInterface = true;
             }
-            encoder.sendString("@yel@Level: " + wildernessLevel, 199);
+            if (level != wildernessLevel) {
+                wildernessLevel = level;
+                encoder.sendString("@yel@Level: " + wildernessLevel, 199);
+            }
         } else if (wildernessInterface) {
             encoder.sendContextMenu(3, "null");
             encoder.sendWalkable(-1);
@@ -783,20 +793,20 @@ public final class Player extends CharacterNode {
     }
 
     /**
-     * Gets the hash collection of the local players.
+     * Gets the collection of the local players.
      *
      * @return the local players.
      */
-    public Set<Player> getLocalPlayers() {
+    public LocalCharacterSet<Player> getLocalPlayers() {
         return localPlayers;
     }
 
     /**
-     * Gets the hash collection of the local npcs.
+     * Gets the collection of the local npcs.
      *
      * @return the local npcs.
      */
-    public Set<Npc> getLocalNpcs() {
+    public LocalCharacterSet<Npc> getLocalNpcs() {
         return localNpcs;
     }
 
@@ -1274,6 +1284,7 @@ public final class Player extends CharacterNode {
      */
     public void setWeaponAnimation(WeaponAnimation weaponAnimation) {
         this.weaponAnimation = weaponAnimation;
+        invalidateAppearance();
     }
 
     /**
@@ -1484,6 +1495,7 @@ public final class Player extends CharacterNode {
      */
     public void setHeadIcon(int headIcon) {
         this.headIcon = headIcon;
+        invalidateAppearance();
     }
 
     /**
@@ -1503,6 +1515,7 @@ public final class Player extends CharacterNode {
      */
     public void setSkullIcon(int skullIcon) {
         this.skullIcon = skullIcon;
+        invalidateAppearance();
     }
 
     /**
@@ -1697,25 +1710,35 @@ public final class Player extends CharacterNode {
      */
     public void setPlayerNpc(int playerNpc) {
         this.playerNpc = playerNpc;
+        invalidateAppearance();
     }
 
     /**
-     * Gets the cached player update block for updating.
+     * Gets the cached appearance block of this player.
      *
-     * @return the cached update block.
+     * @return the cached appearance block, or {@code null} if it needs to be
+     *         encoded again.
      */
-    public ByteBuf getCachedUpdateBlock() {
-        return cachedUpdateBlock;
+    public byte[] getAppearanceBlock() {
+        return appearanceBlock;
     }
 
     /**
-     * Sets the value for {@link Player#cachedUpdateBlock}.
+     * Sets the value for {@link Player#appearanceBlock}.
      *
-     * @param cachedUpdateBlock
+     * @param appearanceBlock
      *            the new value to set.
      */
-    public void setCachedUpdateBlock(ByteBuf cachedUpdateBlock) {
-        this.cachedUpdateBlock = cachedUpdateBlock;
+    public void setAppearanceBlock(byte[] appearanceBlock) {
+        this.appearanceBlock = appearanceBlock;
+    }
+
+    /**
+     * Discards the cached appearance block of this player, so that it will be
+     * encoded again the next time it is needed.
+     */
+    public void invalidateAppearance() {
+        appearanceBlock = null;
     }
 
     /**
@@ -1766,6 +1789,26 @@ public final class Player extends CharacterNode {
         this.updateRegion = updateRegion;
     }
 
+    /**
+     * Determines if this player could not add every viewable player on the
+     * last update.
+     *
+     * @return {@code true} if additions are pending, {@code false} otherwise.
+     */
+    public boolean isAdditionsPending() {
+        return additionsPending;
+    }
+
+    /**
+     * Sets the value for {@link Player#additionsPending}.
+     *
+     * @param additionsPending
+     *            the new value to set.
+     */
+    public void setAdditionsPending(boolean additionsPending) {
+        this.additionsPending = additionsPending;
+    }
+
     /**
      * Gets the current viewing orb that this player has open.
      *
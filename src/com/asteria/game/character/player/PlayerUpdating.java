@@ -1,9 +1,14 @@
 package com.asteria.game.character.player;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import com.asteria.game.World;
 import com.asteria.game.character.Flag;
+import com.asteria.game.character.LocalCharacterSet;
+import com.asteria.game.character.UpdateBlockCache;
+import com.asteria.game.character.UpdateBlockCache.BlockType;
 import com.asteria.game.character.player.skill.Skills;
 import com.asteria.game.item.container.Equipment;
 import com.asteria.game.location.Position;
@@ -20,6 +25,12 @@ import com.asteria.utility.BitMask;
  */
 public final class PlayerUpdating {
 
+    /**
+     * The list of viewable players, reused for every lookup made by the same
+     * updating thread.
+     */
+    private static final ThreadLocal<List<Player>> VIEWABLE = ThreadLocal.withInitial(ArrayList::new);
+
     /**
      * The default constructor.
      *
@@ -30,6 +41,70 @@ public final class PlayerUpdating {
         throw new UnsupportedOperationException("This class cannot be " + "instantiated!");
     }
 
+    /**
+     * The method that encodes the update blocks of {@code player} for the
+     * current tick. This must be done for every player before any player is
+     * updated, so that the blocks are encoded exactly once per tick. The block
+     * for viewers adding the player is only encoded if the player can be
+     * added this tick, see {@link #isAddable(Player)}.
+     *
+     * @param player
+     *            the player to encode the update blocks of.
+     * @throws Exception
+     *             if any errors occur while encoding the update blocks.
+     */
+    public static void encode(Player player) throws Exception {
+        UpdateBlockCache cache = player.getUpdateBlocks();
+        cache.clear();
+        if (player.getFlags().get(Flag.APPEARANCE))
+            player.invalidateAppearance();
+        if (player.getFlags().needsUpdate()) {
+            PlayerUpdating.encodeState(player, cache.prepare(BlockType.SHARED), false, false);
+            if (player.getFlags().get(Flag.CHAT))
+                PlayerUpdating.encodeState(player, cache.prepare(BlockType.SELF), false, true);
+        }
+        if (player.isVisible() && PlayerUpdating.isAddable(player))
+            PlayerUpdating.encodeState(player, cache.prepare(BlockType.ADDED), true, false);
+    }
+
+    /**
+     * Determines if {@code player} can be added to the local list of any of
+     * its viewers this tick. This is only possible if the player or one of its
+     * viewers has moved, been placed, changed visibility, or could not add
+     * every viewable player on the last update. The check is conservative, as
+     * missing a player here would keep viewers from adding it this tick.
+     *
+     * @param player
+     *            the player to determine this for.
+     * @return {@code true} if the player can be added, {@code false}
+     *         otherwise.
+     */
+    private static boolean isAddable(Player player) {
+        if (PlayerUpdating.isChanged(player))
+            return true;
+        List<Player> viewers = VIEWABLE.get();
+        World.getPlayers().getRegions().getViewers(player.getPosition(), viewers);
+        for (int i = 0; i < viewers.size(); i++) {
+            if (PlayerUpdating.isChanged(viewers.get(i)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Determines if {@code player} has moved, been placed, changed visibility,
+     * or could not add every viewable player on the last update.
+     *
+     * @param player
+     *            the player to determine this for.
+     * @return {@code true} if the player has changed, {@code false}
+     *         otherwise.
+     */
+    private static boolean isChanged(Player player) {
+        return player.getPrimaryDirection() != -1 || player.isNeedsPlacement() || player.isVisibilityChanged() || player
+            .isAdditionsPending();
+    }
+
     /**
      * The method that performs updating on {@code player}.
      *
@@ -41,11 +116,41 @@ public final class PlayerUpdating {
     public static void update(Player player) throws Exception {
         MessageBuilder out = MessageBuilder.create(16384);
         MessageBuilder block = MessageBuilder.create(8192);
+        try {
+            PlayerUpdating.update(player, out, block);
+        } catch (Exception e) {
+            out.release();
+            throw e;
+        } finally {
+            block.release();
+        }
+        player.getSession().queue(out);
+    }
+
+    /**
+     * Writes the player update message for {@code player} into {@code out}.
+     *
+     * @param player
+     *            the player being updated.
+     * @param out
+     *            the buffer the message will be written to.
+     * @param block
+     *            the buffer the update blocks will be written to.
+     * @throws Exception
+     *             if any errors occur while updating the player.
+     */
+    private static void update(Player player, MessageBuilder out, MessageBuilder block) throws Exception {
         out.newVarShortMessage(81);
-        out.startBitAccess();
+
+        // At most 21 bits for our own movement, 8 for the local player count,
+        // 10 for every local player, 23 for each of the 15 players that can be
+        // added, and 11 for the block marker.
+        out.startBitAccess(40 + (player.getLocalPlayers().size() * 10) + (15 * 23));
         PlayerUpdating.updateLocalPlayerMovement(player, out);
-        if (player.getFlags().needsUpdate())
-            PlayerUpdating.updateState(player, player, block, false, true);
+        if (player.getFlags().needsUpdate()) {
+            UpdateBlockCache cache = player.getUpdateBlocks();
+            block.putBytes(cache.get(cache.isEncoded(BlockType.SELF) ? BlockType.SELF : BlockType.SHARED));
+        }
         out.putBits(8, player.getLocalPlayers().size());
         for (Iterator<Player> i = player.getLocalPlayers().iterator(); i.hasNext();) {
             Player other = i.next();
@@ -53,7 +158,7 @@ public final class PlayerUpdating {
                 .isNeedsPlacement() && other.isVisible()) {
                 PlayerUpdating.updateOtherPlayerMovement(other, out);
                 if (other.getFlags().needsUpdate()) {
-                    PlayerUpdating.updateState(other, player, block, false, false);
+                    block.putBytes(other.getUpdateBlocks().get(BlockType.SHARED));
                 }
             } else {
                 out.putBit(true);
@@ -62,19 +167,30 @@ public final class PlayerUpdating {
             }
         }
         int added = 0;
-        for (Player other : World.getPlayers()) {
-            if (added == 15 || player.getLocalPlayers().size() >= 255)
+        boolean pending = false;
+        List<Player> viewable = VIEWABLE.get();
+        World.getPlayers().getRegions().getViewable(player.getPosition(), viewable);
+        for (Player other : viewable) {
+            if (other.equals(player) || other.getSession().getState() != IOState.LOGGED_IN || !other.isVisible() || player
+                .getLocalPlayers().contains(other))
+                continue;
+            if (added == 15 || player.getLocalPlayers().size() >= LocalCharacterSet.MAXIMUM_SIZE) {
+                pending = true;
                 break;
-            if (other == null || other.equals(player) || other.getSession().getState() != IOState.LOGGED_IN)
+            }
+
+            // The block is only missing if the player was not expected to be
+            // added, in which case it is added on the next update instead.
+            if (!other.getUpdateBlocks().isEncoded(BlockType.ADDED)) {
+                pending = true;
                 continue;
-            if (other.getPosition().isViewableFrom(player.getPosition()) && other.isVisible()) {
-                if (player.getLocalPlayers().add(other)) {
-                    added++;
-                    PlayerUpdating.addPlayer(out, player, other);
-                    PlayerUpdating.updateState(other, player, block, true, false);
-                }
             }
+            player.getLocalPlayers().add(other);
+            added++;
+            PlayerUpdating.addPlayer(out, player, other);
+            block.putBytes(other.getUpdateBlocks().get(BlockType.ADDED));
         }
+        player.setAdditionsPending(pending);
         if (block.buffer().writerIndex() > 0) {
             out.putBits(11, 2047);
             out.endBitAccess();
@@ -83,7 +199,6 @@ public final class PlayerUpdating {
             out.endBitAccess();
         }
         out.endVarShortMessage();
-        player.getSession().queue(out);
     }
 
     /**
@@ -102,7 +217,9 @@ public final class PlayerUpdating {
     }
 
     /**
-     * Appends the state of appearance to {@code out} for {@code player}.
+     * Appends the state of appearance to {@code out} for {@code player}. The
+     * appearance is only encoded again if it has been invalidated since it was
+     * last encoded, otherwise the cached appearance block is used.
      *
      * @param player
      *            the player to append the state for.
@@ -110,6 +227,23 @@ public final class PlayerUpdating {
      *            the buffer to append it to.
      */
     private static void appendAppearance(Player player, MessageBuilder out) {
+        byte[] cached = player.getAppearanceBlock();
+        if (cached == null) {
+            cached = encodeAppearance(player);
+            player.setAppearanceBlock(cached);
+        }
+        out.put(cached.length, ValueType.C);
+        out.putBytes(cached, cached.length);
+    }
+
+    /**
+     * Encodes the appearance of {@code player} into a new array of bytes.
+     *
+     * @param player
+     *            the player to encode the appearance for.
+     * @return the encoded appearance.
+     */
+    private static byte[] encodeAppearance(Player player) {
         Appearance appearance = player.getAppearance();
         MessageBuilder block = MessageBuilder.create(128);
         block.put(appearance.getGender());
@@ -211,8 +345,10 @@ public final class PlayerUpdating {
         block.put(player.determineCombatLevel());
         block.putShort(0);
 
-        out.put(block.buffer().writerIndex(), ValueType.C);
-        out.putBytes(block.buffer());
+        byte[] encoded = new byte[block.buffer().writerIndex()];
+        block.buffer().getBytes(0, encoded);
+        block.release();
+        return encoded;
     }
 
     /**
@@ -305,29 +441,20 @@ public final class PlayerUpdating {
     }
 
     /**
-     * Updates the state of {@code thisPlayer} for {@code player}.
+     * Encodes the state of {@code player} into {@code cachedBuffer}.
      *
      * @param player
-     *            the player to update the state for.
-     * @param thisPlayer
-     *            the player who's state is being updated.
-     * @param block
+     *            the player who's state is being encoded.
+     * @param cachedBuffer
      *            the buffer that the data will be written to.
      * @param forceAppearance
      *            if the appearance block is being forced.
      * @param noChat
      *            if the chat block is being disabled.
      * @throws Exception
-     *             if any errors occur while updating the state.
+     *             if any errors occur while encoding the state.
      */
-    private static void updateState(Player player, Player thisPlayer, MessageBuilder block, boolean forceAppearance, boolean noChat) throws Exception {
-        if (!player.getFlags().needsUpdate() && !forceAppearance)
-            return;
-        if (player.getCachedUpdateBlock() != null && !player.equals(thisPlayer) && !forceAppearance && !noChat) {
-            block.putBytes(player.getCachedUpdateBlock());
-            return;
-        }
-        MessageBuilder cachedBuffer = MessageBuilder.create(300);
+    private static void encodeState(Player player, MessageBuilder cachedBuffer, boolean forceAppearance, boolean noChat) throws Exception {
         BitMask mask = new BitMask();
 
         if (player.getFlags().get(Flag.FORCED_MOVEMENT)) {
@@ -397,10 +524,6 @@ public final class PlayerUpdating {
         if (player.getFlags().get(Flag.HIT_2)) {
             appendSecondaryHit(player, cachedBuffer);
         }
-        if (!player.equals(thisPlayer) && !forceAppearance && !noChat) {
-            player.setCachedUpdateBlock(cachedBuffer.buffer());
-        }
-        block.putBytes(cachedBuffer.buffer());
     }
 
     /**
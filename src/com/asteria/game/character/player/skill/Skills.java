@@ -168,6 +168,7 @@ public final class Skills {
                 player.getMessages().sendMessage("Congratulations, you've just" + " advanced " + append + " level!");
                 player.getMessages().sendChatInterface(data.getChatbox());
                 player.graphic(new Graphic(199));
+                player.invalidateAppearance();
                 player.getFlags().set(Flag.APPEARANCE);
             }
         }
@@ -161,6 +161,7 @@ public final class Equipment extends ItemContainer {
             player.setSpecialActivated(false);
         }
         refresh();
+        player.invalidateAppearance();
         player.getFlags().set(Flag.APPEARANCE);
         return true;
     }
@@ -199,6 +200,7 @@ public final class Equipment extends ItemContainer {
         }
         refresh();
         player.getInventory().refresh();
+        player.invalidateAppearance();
         player.getFlags().set(Flag.APPEARANCE);
         return true;
     }
@@ -242,4 +244,4 @@ public final class Equipment extends ItemContainer {
     public boolean remove(Item item, int slot) {
         throw new UnsupportedOperationException("This method is not supported by this container implementation!");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
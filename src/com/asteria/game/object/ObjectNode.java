@@ -4,8 +4,8 @@ import java.util.Objects;
 
 import com.asteria.game.Node;
 import com.asteria.game.NodeType;
-import com.asteria.game.World;
 import com.asteria.game.location.Position;
+import com.asteria.net.message.OutputMessages;
 
 /**
  * The node that represents an object anywhere in the world.
@@ -64,16 +64,12 @@ public final class ObjectNode extends Node {
 
     @Override
     public void create() {
-        World.getPlayers().forEach(p -> {
-            if (super.getPosition().withinDistance(p.getPosition(), 60)) {
-                p.getMessages().sendObject(this);
-            }
-        });
+        OutputMessages.sendAllObject(this);
     }
 
     @Override
     public void dispose() {
-        World.getPlayers().forEach(p -> p.getMessages().sendRemoveObject(super.getPosition()));
+        OutputMessages.sendAllRemoveObject(super.getPosition());
     }
 
     @Override
@@ -0,0 +1,45 @@
+package com.asteria.game.profile;
+
+import com.asteria.game.World;
+
+/**
+ * The enumerated type whose elements represent the phases of a single
+ * {@link World} sequence that are measured by the {@link TickProfiler}. The
+ * elements are declared in the order they are executed.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public enum TickPhase {
+    LOGINS("logins"),
+    LOGOUTS("logouts"),
+    TASKS("tasks"),
+    OWNED_TASKS("owned_tasks"),
+    COMBAT("combat"),
+    PLAYER_SEQUENCE("player_sequence"),
+    NPC_SEQUENCE("npc_sequence"),
+    ENCODING("encoding"),
+    UPDATING("updating"),
+    PLAYER_RESET("player_reset"),
+    NPC_RESET("npc_reset"),
+    FLUSHING("flushing");
+
+    /**
+     * The name of this phase as it will be printed.
+     */
+    private final String name;
+
+    /**
+     * Creates a new {@link TickPhase}.
+     *
+     * @param name
+     *            the name of this phase as it will be printed.
+     */
+    private TickPhase(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public final String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,240 @@
+package com.asteria.game.profile;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.asteria.game.GameConstants;
+import com.asteria.game.World;
+import com.asteria.utility.LatencyHistogram;
+import com.asteria.utility.LoggerUtils;
+
+/**
+ * The profiler that measures the wall time of every {@link TickPhase} within a
+ * {@link World} sequence, as well as the wall time of the sequence as a whole.
+ * Recording into this profiler does not allocate any memory, and a summary is
+ * printed every {@link GameConstants#PROFILE_LOG_INTERVAL} ticks.
+ * <p>
+ * <p>
+ * This profiler should only be recorded into by the game thread, but can be
+ * queried from any thread.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class TickProfiler {
+
+    /**
+     * The logger that will print important information.
+     */
+    private static Logger logger = LoggerUtils.getLogger(TickProfiler.class);
+
+    /**
+     * The cached array of phases, to prevent allocation on every tick.
+     */
+    private static final TickPhase[] PHASES = TickPhase.values();
+
+    /**
+     * The histograms of wall time spent in each phase.
+     */
+    private final LatencyHistogram[] phaseHistograms = new LatencyHistogram[PHASES.length];
+
+    /**
+     * The wall time in nanoseconds spent in each phase on the last tick.
+     */
+    private final long[] lastPhaseTimes = new long[PHASES.length];
+
+    /**
+     * The histogram of wall time spent on the entire tick.
+     */
+    private final LatencyHistogram tickHistogram = new LatencyHistogram();
+
+    /**
+     * The histogram of how late each tick started relative to its deadline.
+     */
+    private final LatencyHistogram jitterHistogram = new LatencyHistogram();
+
+    /**
+     * The time stamp in nanoseconds the current tick started on.
+     */
+    private long tickStart;
+
+    /**
+     * The time stamp in nanoseconds the current phase started on.
+     */
+    private long phaseStart;
+
+    /**
+     * The amount of ticks that have been recorded.
+     */
+    private volatile long ticks;
+
+    /**
+     * The amount of ticks that took longer than
+     * {@link GameConstants#CYCLE_RATE} to complete.
+     */
+    private volatile long overruns;
+
+    /**
+     * The amount of overruns when the last summary was printed.
+     */
+    private long lastOverruns;
+
+    /**
+     * Creates a new {@link TickProfiler}.
+     */
+    public TickProfiler() {
+        for (int index = 0; index < phaseHistograms.length; index++)
+            phaseHistograms[index] = new LatencyHistogram();
+    }
+
+    /**
+     * Marks the start of a new tick, and the start of its first phase.
+     */
+    public void start() {
+        tickStart = System.nanoTime();
+        phaseStart = tickStart;
+    }
+
+    /**
+     * Records how late the current tick started relative to its deadline.
+     *
+     * @param nanos
+     *            the lateness of the tick in nanoseconds.
+     */
+    public void recordJitter(long nanos) {
+        jitterHistogram.recordNanos(nanos);
+    }
+
+    /**
+     * Marks the end of {@code phase}, and the start of the next phase.
+     *
+     * @param phase
+     *            the phase that has just completed.
+     */
+    public void mark(TickPhase phase) {
+        long now = System.nanoTime();
+        long elapsed = now - phaseStart;
+        phaseHistograms[phase.ordinal()].recordNanos(elapsed);
+        lastPhaseTimes[phase.ordinal()] = elapsed;
+        phaseStart = now;
+    }
+
+    /**
+     * Marks the end of the current tick, printing a summary if needed.
+     */
+    public void end() {
+        long elapsed = System.nanoTime() - tickStart;
+        tickHistogram.recordNanos(elapsed);
+        if (TimeUnit.NANOSECONDS.toMillis(elapsed) > GameConstants.CYCLE_RATE)
+            overruns++;
+        ticks++;
+        if (GameConstants.PROFILE_LOG_INTERVAL > 0 && ticks % GameConstants.PROFILE_LOG_INTERVAL == 0)
+            logger.info(summary());
+    }
+
+    /**
+     * Creates a single line summary of the statistics recorded so far, as well
+     * as the amount of overruns since the last summary.
+     *
+     * @return the summary of this profiler.
+     */
+    private String summary() {
+        long intervalOverruns = overruns - lastOverruns;
+        lastOverruns = overruns;
+        StringBuilder sb = new StringBuilder();
+        sb.append("Tick profile [ticks=").append(ticks).append(", overruns=").append(overruns).append(" (+").append(
+            intervalOverruns).append(")] total[").append(format(tickHistogram)).append("]");
+        sb.append(" jitter[").append(format(jitterHistogram)).append("]");
+        for (TickPhase phase : PHASES) {
+            sb.append(' ').append(phase).append('[').append(format(phaseHistograms[phase.ordinal()])).append(']');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats the percentiles of {@code histogram} in milliseconds.
+     *
+     * @param histogram
+     *            the histogram to format.
+     * @return the formatted histogram.
+     */
+    private static String format(LatencyHistogram histogram) {
+        return String.format("p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms", histogram.getValueAtPercentile(50) / 1000D,
+            histogram.getValueAtPercentile(99) / 1000D, histogram.getValueAtPercentile(99.9) / 1000D, histogram
+                .getMaximum() / 1000D);
+    }
+
+    /**
+     * Discards all of the statistics recorded so far.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : phaseHistograms)
+            histogram.reset();
+        tickHistogram.reset();
+        jitterHistogram.reset();
+        ticks = 0;
+        overruns = 0;
+        lastOverruns = 0;
+    }
+
+    /**
+     * Gets the histogram of wall time spent in {@code phase}.
+     *
+     * @param phase
+     *            the phase to get the histogram for.
+     * @return the histogram of the phase.
+     */
+    public LatencyHistogram getPhaseHistogram(TickPhase phase) {
+        return phaseHistograms[phase.ordinal()];
+    }
+
+    /**
+     * Gets the wall time spent in {@code phase} on the last tick.
+     *
+     * @param phase
+     *            the phase to get the wall time for.
+     * @param unit
+     *            the time unit to get the wall time in.
+     * @return the wall time of the phase.
+     */
+    public long getLastPhaseTime(TickPhase phase, TimeUnit unit) {
+        return unit.convert(lastPhaseTimes[phase.ordinal()], TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the histogram of wall time spent on the entire tick.
+     *
+     * @return the histogram of the tick.
+     */
+    public LatencyHistogram getTickHistogram() {
+        return tickHistogram;
+    }
+
+    /**
+     * Gets the histogram of how late each tick started relative to its
+     * deadline.
+     *
+     * @return the histogram of tick start jitter.
+     */
+    public LatencyHistogram getJitterHistogram() {
+        return jitterHistogram;
+    }
+
+    /**
+     * Gets the amount of ticks that have been recorded.
+     *
+     * @return the amount of ticks.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the amount of ticks that took longer than
+     * {@link GameConstants#CYCLE_RATE} to complete.
+     *
+     * @return the amount of overruns.
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+}
@@ -1,42 +1,46 @@
 package com.asteria.game.sync;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Phaser;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
 
 import com.asteria.game.GameConstants;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * A synchronization executor that executes {@link GameSyncTask}s. These have
  * support for both concurrent and sequential synchronization tasks, and are
  * smart enough to determine when each should be used on a task-to-task basis.
+ * <p>
+ * <p>
+ * Concurrent tasks are not dispatched one character at a time, instead the
+ * index range of the task is split into contiguous chunks of
+ * {@link GameConstants#SYNC_CHUNK_SIZE} indexes that are processed on a
+ * work-stealing pool with a single join per synchronization phase.
  * 
  * @author lare96 <http://github.org/lare96>
  */
 public final class GameSyncExecutor {
 
     /**
-     * The executor that will execute the synchronization tasks. This value may
-     * or may not be {@code null}.
+     * The amount of actions that are executed sequentially as a single chunk
+     * when executing a list of actions concurrently.
      */
-    private final ExecutorService service;
+    private static final int ACTION_CHUNK_SIZE = 8;
 
     /**
-     * The synchronizer that ensures that the thread waits until tasks are
-     * completed before proceeding. This value may or may not be {@code null}.
+     * The work-stealing pool that will execute the synchronization tasks. This
+     * value may or may not be {@code null}.
      */
-    private final Phaser phaser;
+    private final ForkJoinPool pool;
 
     /**
      * Creates a new {@link GameSyncExecutor}. It automatically determines how
      * many threads; if any, are needed for game synchronization.
      */
     public GameSyncExecutor() {
-        this.service = GameConstants.CONCURRENCY ? create(Runtime.getRuntime().availableProcessors()) : null;
-        this.phaser = GameConstants.CONCURRENCY ? new Phaser(1) : null;
+        this.pool = GameConstants.CONCURRENCY ? create(Runtime.getRuntime().availableProcessors()) : null;
     }
 
     /**
@@ -48,49 +52,177 @@ public final class GameSyncExecutor {
      *            the synchronization task to execute.
      */
     public void sync(GameSyncTask syncTask) {
-        if (service == null || phaser == null || !syncTask.isConcurrent()) {
-            for (int index = 1; index < syncTask.getCapacity(); index++) {
-                if (!syncTask.checkIndex(index))
-                    continue;
-                syncTask.execute(index);
-            }
+        if (pool == null || !syncTask.isConcurrent() || syncTask.getAmount() <= GameConstants.SYNC_CHUNK_SIZE) {
+            execute(syncTask, 1, syncTask.getCapacity());
             return;
         }
+        pool.invoke(new GameSyncAction(syncTask, 1, syncTask.getCapacity()));
+    }
 
-        phaser.bulkRegister(syncTask.getAmount());
-        for (int index = 1; index < syncTask.getCapacity(); index++) {
+    /**
+     * Executes all of {@code actions} concurrently under this executor, or
+     * sequentially on the calling thread if this executor is not concurrent.
+     * This method blocks the calling thread until every action completes.
+     * 
+     * @param actions
+     *            the actions to execute.
+     */
+    public void sync(List<? extends Runnable> actions) {
+        if (pool == null || actions.size() <= 1) {
+            actions.forEach(Runnable::run);
+            return;
+        }
+        pool.invoke(new ActionSyncAction(actions, 0, actions.size()));
+    }
+
+    /**
+     * Sequentially executes {@code syncTask} for every valid index from
+     * {@code start} inclusive to {@code end} exclusive.
+     * 
+     * @param syncTask
+     *            the synchronization task to execute.
+     * @param start
+     *            the first index, inclusive.
+     * @param end
+     *            the last index, exclusive.
+     */
+    private static void execute(GameSyncTask syncTask, int start, int end) {
+        for (int index = start; index < end; index++) {
             if (!syncTask.checkIndex(index))
                 continue;
-            final int finalIndex = index;
-            service.execute(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        syncTask.execute(finalIndex);
-                    } finally {
-                        phaser.arriveAndDeregister();
-                    }
-                }
-            });
+            syncTask.execute(index);
         }
-        phaser.arriveAndAwaitAdvance();
     }
 
     /**
-     * Creates and configures the update service for this game sync executor.
-     * The returned executor is <b>unconfigurable</b> meaning it's configuration
-     * can no longer be modified.
+     * Creates and configures the work-stealing pool for this game sync
+     * executor.
      * 
      * @param nThreads
-     *            the amount of threads to create this service.
-     * @return the newly created and configured service.
+     *            the amount of threads to create this pool with.
+     * @return the newly created and configured pool.
      */
-    private ExecutorService create(int nThreads) {
+    private ForkJoinPool create(int nThreads) {
         if (nThreads <= 1)
             return null;
-        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(nThreads);
-        executor.setRejectedExecutionHandler(new CallerRunsPolicy());
-        executor.setThreadFactory(new ThreadFactoryBuilder().setNameFormat("GameSyncThread").build());
-        return Executors.unconfigurableExecutorService(executor);
+        ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("GameSyncThread");
+            return thread;
+        };
+        return new ForkJoinPool(nThreads, factory, null, false);
+    }
+
+    /**
+     * The {@link RecursiveAction} that recursively splits the index range of a
+     * synchronization task in half until it is small enough to be executed
+     * sequentially as a single chunk.
+     * 
+     * @author lare96 <http://github.org/lare96>
+     */
+    private static final class GameSyncAction extends RecursiveAction {
+
+        /**
+         * The unique serial version identifier.
+         */
+        private static final long serialVersionUID = 6458164375307254215L;
+
+        /**
+         * The synchronization task being executed.
+         */
+        private final GameSyncTask syncTask;
+
+        /**
+         * The first index of this chunk, inclusive.
+         */
+        private final int start;
+
+        /**
+         * The last index of this chunk, exclusive.
+         */
+        private final int end;
+
+        /**
+         * Creates a new {@link GameSyncAction}.
+         * 
+         * @param syncTask
+         *            the synchronization task being executed.
+         * @param start
+         *            the first index of this chunk, inclusive.
+         * @param end
+         *            the last index of this chunk, exclusive.
+         */
+        GameSyncAction(GameSyncTask syncTask, int start, int end) {
+            this.syncTask = syncTask;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if ((end - start) <= GameConstants.SYNC_CHUNK_SIZE) {
+                execute(syncTask, start, end);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new GameSyncAction(syncTask, start, middle), new GameSyncAction(syncTask, middle, end));
+        }
+    }
+
+    /**
+     * The {@link RecursiveAction} that recursively splits a list of actions in
+     * half until it is small enough to be executed sequentially as a single
+     * chunk.
+     * 
+     * @author lare96 <http://github.org/lare96>
+     */
+    private static final class ActionSyncAction extends RecursiveAction {
+
+        /**
+         * The unique serial version identifier.
+         */
+        private static final long serialVersionUID = -2807335287451066378L;
+
+        /**
+         * The actions being executed.
+         */
+        private final List<? extends Runnable> actions;
+
+        /**
+         * The first index of this chunk, inclusive.
+         */
+        private final int start;
+
+        /**
+         * The last index of this chunk, exclusive.
+         */
+        private final int end;
+
+        /**
+         * Creates a new {@link ActionSyncAction}.
+         * 
+         * @param actions
+         *            the actions being executed.
+         * @param start
+         *            the first index of this chunk, inclusive.
+         * @param end
+         *            the last index of this chunk, exclusive.
+         */
+        ActionSyncAction(List<? extends Runnable> actions, int start, int end) {
+            this.actions = actions;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if ((end - start) <= ACTION_CHUNK_SIZE) {
+                for (int index = start; index < end; index++)
+                    actions.get(index).run();
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new ActionSyncAction(actions, start, middle), new ActionSyncAction(actions, middle, end));
+        }
     }
 }
@@ -14,7 +14,7 @@ import com.google.common.base.Preconditions;
 public abstract class GameSyncTask {
 
     /**
-     * The amount of parties the synchronizer will register.
+     * The amount of characters that will be synchronized.
      */
     private final int amount;
 
@@ -81,9 +81,9 @@ public abstract class GameSyncTask {
     public abstract void execute(final int index);
 
     /**
-     * Gets the amount of parties the synchronizer will register.
+     * Gets the amount of characters that will be synchronized.
      * 
-     * @return the amount of parties.
+     * @return the amount of characters.
      */
     public final int getAmount() {
         return amount;
@@ -0,0 +1,227 @@
+package com.asteria.net;
+
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The network security that decides which sockets are admitted as soon as they
+ * are accepted, before any session or player is created for them. Connection
+ * attempts are rate limited with token buckets for each host, for each
+ * {@code /24} subnet the hosts are in, and for the server as a whole.
+ * <p>
+ * <p>
+ * A bucket holds up to a certain amount of tokens that are refilled at a fixed
+ * rate, and every connection attempt takes one token from each bucket it falls
+ * under. Attempts are rejected when a bucket has no tokens left. Buckets that
+ * have been idle for long enough are evicted so that hosts which stop
+ * connecting do not stay in memory.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class AdmissionController {
+
+    /**
+     * The concurrent map of token buckets for each host.
+     */
+    private static final Map<String, TokenBucket> HOSTS = new ConcurrentHashMap<>();
+
+    /**
+     * The concurrent map of token buckets for each subnet.
+     */
+    private static final Map<String, TokenBucket> SUBNETS = new ConcurrentHashMap<>();
+
+    /**
+     * The token bucket for every connection attempt made to the server.
+     */
+    private static final TokenBucket GLOBAL = new TokenBucket(NetworkConstants.GLOBAL_ACCEPT_RATE,
+        NetworkConstants.GLOBAL_ACCEPT_BURST, System.nanoTime());
+
+    /**
+     * The time in nanoseconds that idle buckets were last evicted.
+     */
+    private static final AtomicLong LAST_EVICTION = new AtomicLong(System.nanoTime());
+
+    /**
+     * The amount of connection attempts that have been rejected.
+     */
+    private static final AtomicLong REJECTED = new AtomicLong();
+
+    /**
+     * The default constructor.
+     *
+     * @throws UnsupportedOperationException
+     *             if this class is instantiated.
+     */
+    private AdmissionController() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Determines if a connection attempt from {@code address} should be
+     * admitted. Local connections are always admitted.
+     *
+     * @param address
+     *            the address the connection attempt is from.
+     * @return {@code true} if the connection should be admitted, {@code false}
+     *         if it should be closed.
+     */
+    public static boolean admit(InetAddress address) {
+        if (address.isLoopbackAddress())
+            return true;
+        long now = System.nanoTime();
+        evictIdle(now);
+        if (acquire(HOSTS, address.getHostAddress(), NetworkConstants.HOST_ACCEPT_RATE, NetworkConstants.HOST_ACCEPT_BURST, now)
+            && acquire(SUBNETS, subnet(address), NetworkConstants.SUBNET_ACCEPT_RATE, NetworkConstants.SUBNET_ACCEPT_BURST, now)
+            && GLOBAL.tryAcquire(now)) {
+            return true;
+        }
+        REJECTED.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Takes a token from the bucket for {@code key} within {@code buckets},
+     * creating the bucket if needed.
+     *
+     * @param buckets
+     *            the map of buckets to take the token from.
+     * @param key
+     *            the key of the bucket.
+     * @param rate
+     *            the amount of tokens a new bucket refills every second.
+     * @param burst
+     *            the maximum amount of tokens a new bucket can hold.
+     * @param now
+     *            the current time in nanoseconds.
+     * @return {@code true} if a token was taken, {@code false} otherwise.
+     */
+    private static boolean acquire(Map<String, TokenBucket> buckets, String key, double rate, int burst, long now) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(rate, burst, now)).tryAcquire(now);
+    }
+
+    /**
+     * Evicts all of the buckets that have been idle for longer than
+     * {@link NetworkConstants#ADMISSION_IDLE_TIMEOUT}, if they have not been
+     * evicted recently.
+     *
+     * @param now
+     *            the current time in nanoseconds.
+     */
+    private static void evictIdle(long now) {
+        long last = LAST_EVICTION.get();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(NetworkConstants.ADMISSION_IDLE_TIMEOUT);
+        if (now - last < timeout || !LAST_EVICTION.compareAndSet(last, now))
+            return;
+        HOSTS.values().removeIf(b -> b.isIdle(now, timeout));
+        SUBNETS.values().removeIf(b -> b.isIdle(now, timeout));
+    }
+
+    /**
+     * Gets the key of the subnet {@code address} is in. This is the
+     * {@code /24} subnet for IPv4 addresses, and the {@code /64} subnet for
+     * IPv6 addresses.
+     *
+     * @param address
+     *            the address to get the subnet of.
+     * @return the key of the subnet.
+     */
+    private static String subnet(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        int length = bytes.length == 4 ? 3 : 8;
+        StringBuilder sb = new StringBuilder(length * 3);
+        for (int i = 0; i < length; i++) {
+            if (i > 0)
+                sb.append('.');
+            sb.append(bytes[i] & 0xff);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the amount of connection attempts that have been rejected.
+     *
+     * @return the amount of rejected connection attempts.
+     */
+    public static long getRejected() {
+        return REJECTED.get();
+    }
+
+    /**
+     * A bucket of tokens that is refilled at a fixed rate.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private static final class TokenBucket {
+
+        /**
+         * The amount of tokens refilled every nanosecond.
+         */
+        private final double rate;
+
+        /**
+         * The maximum amount of tokens this bucket can hold.
+         */
+        private final int burst;
+
+        /**
+         * The amount of tokens within this bucket.
+         */
+        private double tokens;
+
+        /**
+         * The time in nanoseconds this bucket was last used.
+         */
+        private long lastUsed;
+
+        /**
+         * Creates a new {@link TokenBucket} that starts out full.
+         *
+         * @param rate
+         *            the amount of tokens refilled every second.
+         * @param burst
+         *            the maximum amount of tokens this bucket can hold.
+         * @param now
+         *            the current time in nanoseconds.
+         */
+        public TokenBucket(double rate, int burst, long now) {
+            this.rate = rate / TimeUnit.SECONDS.toNanos(1);
+            this.burst = burst;
+            this.tokens = burst;
+            this.lastUsed = now;
+        }
+
+        /**
+         * Refills this bucket and attempts to take a token from it.
+         *
+         * @param now
+         *            the current time in nanoseconds.
+         * @return {@code true} if a token was taken, {@code false} otherwise.
+         */
+        public synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(burst, tokens + Math.max(0, now - lastUsed) * rate);
+            lastUsed = Math.max(lastUsed, now);
+            if (tokens < 1)
+                return false;
+            tokens--;
+            return true;
+        }
+
+        /**
+         * Determines if this bucket has not been used for at least
+         * {@code timeout} nanoseconds.
+         *
+         * @param now
+         *            the current time in nanoseconds.
+         * @param timeout
+         *            the idle timeout in nanoseconds.
+         * @return {@code true} if this bucket is idle, {@code false}
+         *         otherwise.
+         */
+        public synchronized boolean isIdle(long now, long timeout) {
+            return now - lastUsed >= timeout;
+        }
+    }
+}
@@ -3,30 +3,29 @@ package com.asteria.net;
 import java.io.FileWriter;
 import java.nio.file.Paths;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import com.asteria.game.World;
 import com.asteria.net.login.LoginResponse;
-import com.asteria.utility.Stopwatch.AtomicStopwatch;
 import com.google.common.collect.Sets;
 
 /**
  * The network security that handles and validates all incoming connections
- * received by the server to ensure that the server does not fall victim to
- * attacks by a socket flooder or a connection from a banned host.
+ * received by the server to ensure that the server does not fall victim to a
+ * connection from a banned host or from a host with too many sessions. The
+ * rate at which connections are accepted is limited by the
+ * {@link AdmissionController}.
  *
  * @author lare96 <http://github.com/lare96>
  */
 public final class ConnectionHandler {
 
     /**
-     * The concurrent map of registered connections.
+     * The concurrent map of hosts to the amount of sessions registered to them.
      */
-    private static final Map<String, Connection> CONNECTIONS = new ConcurrentHashMap<>(50, 0.9f, 2);
+    private static final Map<String, Integer> CONNECTIONS = new ConcurrentHashMap<>(50, 0.9f, 2);
 
     /**
      * The synchronized set of banned hosts.
@@ -45,7 +44,9 @@ public final class ConnectionHandler {
 
     /**
      * Evaluates this host and returns a login response that determines the
-     * result of evaluation.
+     * result of evaluation. If the response is {@link LoginResponse#NORMAL}
+     * the session is registered to the host, and must be removed with
+     * {@link #remove(String)} once it ends.
      *
      * @param host
      *            the host that will be evaluated.
@@ -54,39 +55,26 @@ public final class ConnectionHandler {
     public static LoginResponse evaluate(String host) {
         if (ConnectionHandler.isLocal(host))
             return LoginResponse.NORMAL;
-        Optional<Connection> connection = Optional.ofNullable(CONNECTIONS.putIfAbsent(host, new Connection()));
-        if (connection.isPresent()) {
-            Connection c = connection.get();
-            if (c.sessionLimit()) {
-                return LoginResponse.LOGIN_LIMIT_EXCEEDED;
-            } else if (c.throttleLimit()) {
-                return LoginResponse.LOGIN_ATTEMPTS_EXCEEDED;
-            } else if (BANNED.contains(host)) {
-                return LoginResponse.ACCOUNT_DISABLED;
-            }
-            c.increment();
-            c.getThrottler().reset();
+        if (BANNED.contains(host))
+            return LoginResponse.ACCOUNT_DISABLED;
+        if (CONNECTIONS.merge(host, 1, Integer::sum) > NetworkConstants.CONNECTION_AMOUNT) {
+            ConnectionHandler.remove(host);
+            return LoginResponse.LOGIN_LIMIT_EXCEEDED;
         }
         return LoginResponse.NORMAL;
     }
 
     /**
-     * Removes this host from the connection map or reduces the amount of
-     * connections currently registered to this host.
+     * Reduces the amount of sessions currently registered to this host, and
+     * removes this host from the connection map once none are left.
      *
      * @param host
      *            the host that will be removed.
-     * @throws IllegalStateException
-     *             if the specified host is not registered within the connection
-     *             map.
      */
     public static void remove(String host) {
         if (ConnectionHandler.isLocal(host))
             return;
-        Optional<Connection> op = Optional.ofNullable(CONNECTIONS.get(host));
-        Connection c = op.orElseThrow(() -> new IllegalStateException("Host was not registered with the connection map!"));
-        if (c.decrement() < 1)
-            CONNECTIONS.remove(c);
+        CONNECTIONS.computeIfPresent(host, (h, amount) -> amount > 1 ? amount - 1 : null);
     }
 
     /**
@@ -135,80 +123,4 @@ public final class ConnectionHandler {
     public static boolean isLocal(String host) {
         return host.equals("127.0.0.1") || host.equals("localhost");
     }
-
-    /**
-     * The container that represents a host within the connection map.
-     *
-     * @author lare96 <http://github.com/lare96>
-     */
-    private static final class Connection {
-
-        /**
-         * The amount of sessions bound to this connection.
-         */
-        private final AtomicInteger amount = new AtomicInteger();
-
-        /**
-         * The stopwatch used to time connection intervals.
-         */
-        private final AtomicStopwatch throttler = new AtomicStopwatch().reset();
-
-        /**
-         * Determines if the maximum amount of connections have been reached.
-         *
-         * @return {@code true} if the amount of connections is above or equal
-         *         to {@code CONNECTION_AMOUNT}, {@code false} otherwise.
-         */
-        public boolean sessionLimit() {
-            return amount.get() >= NetworkConstants.CONNECTION_AMOUNT;
-        }
-
-        /**
-         * Determines if the host is connecting too fast and needs to be
-         * throttled.
-         *
-         * @return {@code true} if the host needs to be throttled, {@code false}
-         *         otherwise.
-         */
-        public boolean throttleLimit() {
-            return throttler.elapsedTime() <= NetworkConstants.CONNECTION_INTERVAL;
-        }
-
-        /**
-         * Increments the amount of sessions bound to this connection.
-         *
-         * @return the amount after the increment completes.
-         */
-        public int increment() {
-            return amount.incrementAndGet();
-        }
-
-        /**
-         * Decrements the amount of sessions bound to this connection.
-         *
-         * @return the amount after the decrement completes.
-         */
-        public int decrement() {
-            return amount.decrementAndGet();
-        }
-
-        /**
-         * Gets the amount of sessions bound to this connection.
-         *
-         * @return the amount of sessions bound to this connection.
-         */
-        @SuppressWarnings("unused")
-        public int getAmount() {
-            return amount.get();
-        }
-
-        /**
-         * Gets the stopwatch used to time connection intervals.
-         *
-         * @return the stopwatch used to time connection intervals.
-         */
-        public AtomicStopwatch getThrottler() {
-            return throttler;
-        }
-    }
 }
@@ -1,11 +1,11 @@
 package com.asteria.net;
 
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetector.Level;
 
@@ -35,9 +35,19 @@ public final class NetworkBuilder {
     private final ServerBootstrap bootstrap = new ServerBootstrap();
 
     /**
-     * The event loop group that will be attached to the bootstrap.
+     * The transport that the network will be built on.
      */
-    private final EventLoopGroup loopGroup = new NioEventLoopGroup();
+    private final NetworkTransport transport = NetworkTransport.determine();
+
+    /**
+     * The event loop group that will accept connections.
+     */
+    private final EventLoopGroup bossGroup = transport.newEventLoopGroup(NetworkConstants.BOSS_THREADS);
+
+    /**
+     * The event loop group that will handle the I/O of accepted connections.
+     */
+    private final EventLoopGroup workerGroup = transport.newEventLoopGroup(NetworkConstants.WORKER_THREADS);
 
     /**
      * The {@link ChannelInitializer} that will determine how channels will be
@@ -58,9 +68,16 @@ public final class NetworkBuilder {
         if (port != 43594 && port != 5555 && port != 43595)
             logger.warning("The preferred ports for Runescape servers are 43594, 5555, and 43595!");
         ResourceLeakDetector.setLevel(Server.DEBUG ? Level.PARANOID : NetworkConstants.RESOURCE_DETECTION);
-        bootstrap.group(loopGroup);
-        bootstrap.channel(NioServerSocketChannel.class);
+        bootstrap.group(bossGroup, workerGroup);
+        bootstrap.channel(transport.getServerChannel());
         bootstrap.childHandler(channelInitializer);
+        bootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, NetworkConstants.TCP_NO_DELAY);
+        bootstrap.childOption(ChannelOption.SO_RCVBUF, NetworkConstants.RECEIVE_BUFFER_SIZE);
+        bootstrap.childOption(ChannelOption.SO_SNDBUF, NetworkConstants.SEND_BUFFER_SIZE);
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, NetworkConstants.WRITE_BUFFER_HIGH_WATER_MARK);
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, NetworkConstants.WRITE_BUFFER_LOW_WATER_MARK);
+        logger.info("Building the network on the " + transport + " transport.");
         bootstrap.bind(port).syncUninterruptibly();
     }
 }
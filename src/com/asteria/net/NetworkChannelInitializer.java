@@ -26,6 +26,13 @@ public final class NetworkChannelInitializer extends ChannelInitializer<SocketCh
     @Override
     protected void initChannel(SocketChannel ch) throws Exception {
 
+        // Close the channel right away if the connection is not admitted, before
+        // anything is allocated for it.
+        if (!AdmissionController.admit(ch.remoteAddress().getAddress())) {
+            ch.close();
+            return;
+        }
+
         // Initialize our session Object when the channel is initialized, attach
         // it to the channel.
         ch.attr(NetworkConstants.SESSION_KEY).setIfAbsent(new PlayerIO(ch));
@@ -6,6 +6,7 @@ import io.netty.util.ResourceLeakDetector.Level;
 import java.math.BigInteger;
 
 import com.asteria.net.message.InputMessageListener;
+import com.asteria.net.message.MessagePriority;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -21,6 +22,51 @@ public final class NetworkConstants {
      */
     public static final int PORT = 43594;
 
+    /**
+     * Determines if the native epoll transport should be used when it is
+     * available, the network falls back to NIO otherwise.
+     */
+    public static final boolean PREFER_EPOLL = true;
+
+    /**
+     * The amount of threads that will accept connections, or {@code 0} for the
+     * default amount.
+     */
+    public static final int BOSS_THREADS = 1;
+
+    /**
+     * The amount of threads that will handle the I/O of accepted connections,
+     * or {@code 0} for the default amount.
+     */
+    public static final int WORKER_THREADS = 0;
+
+    /**
+     * Determines if Nagle's algorithm is disabled for accepted connections.
+     */
+    public static final boolean TCP_NO_DELAY = true;
+
+    /**
+     * The size of the socket receive buffer of accepted connections in bytes.
+     */
+    public static final int RECEIVE_BUFFER_SIZE = 32768;
+
+    /**
+     * The size of the socket send buffer of accepted connections in bytes.
+     */
+    public static final int SEND_BUFFER_SIZE = 65536;
+
+    /**
+     * The amount of bytes queued for writing at which a connection is marked
+     * as unwritable.
+     */
+    public static final int WRITE_BUFFER_HIGH_WATER_MARK = 65536;
+
+    /**
+     * The amount of bytes queued for writing that an unwritable connection has
+     * to drop below to be marked as writable again.
+     */
+    public static final int WRITE_BUFFER_LOW_WATER_MARK = 32768;
+
     /**
      * The input timeout value that determines how long a session can go without
      * reading data from the client in {@code SECONDS}.
@@ -48,6 +94,12 @@ public final class NetworkConstants {
      */
     public static final InputMessageListener[] MESSAGES = new InputMessageListener[257];
 
+    /**
+     * An array of the message opcodes mapped to the priority they are queued
+     * and handled with.
+     */
+    public static final MessagePriority[] MESSAGE_PRIORITIES = new MessagePriority[257];
+
     /**
      * An array of message opcodes mapped to their respective sizes.
      */
@@ -60,10 +112,45 @@ public final class NetworkConstants {
     public static final AttributeKey<PlayerIO> SESSION_KEY = AttributeKey.valueOf("session.KEY");
 
     /**
-     * The throttle interval for incoming connections accepted by the
-     * {@link ConnectionHandler}.
+     * The amount of connections that each host can make per second.
+     */
+    public static final double HOST_ACCEPT_RATE = 1;
+
+    /**
+     * The amount of connections that each host can make at once before being
+     * limited to {@link #HOST_ACCEPT_RATE}.
      */
-    public static final long CONNECTION_INTERVAL = 1000;
+    public static final int HOST_ACCEPT_BURST = 3;
+
+    /**
+     * The amount of connections that each {@code /24} subnet can make per
+     * second.
+     */
+    public static final double SUBNET_ACCEPT_RATE = 5;
+
+    /**
+     * The amount of connections that each {@code /24} subnet can make at once
+     * before being limited to {@link #SUBNET_ACCEPT_RATE}.
+     */
+    public static final int SUBNET_ACCEPT_BURST = 20;
+
+    /**
+     * The amount of connections the server accepts per second.
+     */
+    public static final double GLOBAL_ACCEPT_RATE = 200;
+
+    /**
+     * The amount of connections the server accepts at once before being
+     * limited to {@link #GLOBAL_ACCEPT_RATE}.
+     */
+    public static final int GLOBAL_ACCEPT_BURST = 400;
+
+    /**
+     * The time in milliseconds a host or subnet must go without connecting
+     * before it is evicted by the {@link AdmissionController}. This must be
+     * long enough for the buckets to refill completely.
+     */
+    public static final long ADMISSION_IDLE_TIMEOUT = 60000;
 
     /**
      * The maximum amount of connections that can be active at a time, or in
@@ -85,9 +172,41 @@ public final class NetworkConstants {
             "58942123322685908809689084302625256728774551587748168286651364002223076520293763732441711633712538400732268844501356343764421742749024359146319836858905124072353297696448255112361453630421295623429362610999525258756790291981270575779800669035081348981858658116089267888135561190976376091835832053427710797233");
 
     /**
-     * The maximum amount of messages that can be decoded in one sequence.
+     * The amount of messages that can be written to a session in one sequence
+     * before they are flushed early. Messages are otherwise only flushed once
+     * at the end of the sequence, a value of {@code -1} disables early
+     * flushing.
+     */
+    public static final int FLUSH_THRESHOLD = 64;
+
+    /**
+     * The maximum amount of messages that can be held back for a session while
+     * its channel is not writable, before the session is disconnected.
+     */
+    public static final int BACKLOG_LIMIT = 2048;
+
+    /**
+     * The time in milliseconds a session can go without any of its held back
+     * messages being written before it is disconnected.
+     */
+    public static final long WRITE_STALL_TIMEOUT = 15000;
+
+    /**
+     * The amount of worker threads that will decode and finalize logins.
+     */
+    public static final int LOGIN_THREADS = 4;
+
+    /**
+     * The maximum amount of logins that can be waiting for a worker thread,
+     * any logins past this amount are turned away until the queue drains.
+     */
+    public static final int LOGIN_QUEUE_SIZE = 250;
+
+    /**
+     * The amount of logins between summaries of the login statistics, a value
+     * of {@code 0} disables the summaries.
      */
-    public static final int DECODE_LIMIT = 15;
+    public static final int LOGIN_LOG_INTERVAL = 500;
 
     /**
      * The list of exceptions that are ignored and discarded by the
@@ -0,0 +1,73 @@
+package com.asteria.net;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * The enumerated type whose elements represent the transports that the network
+ * can be built on.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public enum NetworkTransport {
+    EPOLL {
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new EpollEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannel() {
+            return EpollServerSocketChannel.class;
+        }
+    },
+    NIO {
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new NioEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannel() {
+            return NioServerSocketChannel.class;
+        }
+    };
+
+    /**
+     * Creates a new event loop group for this transport.
+     *
+     * @param threads
+     *            the amount of threads in the group, or {@code 0} for the
+     *            default amount.
+     * @return the newly created event loop group.
+     */
+    public abstract EventLoopGroup newEventLoopGroup(int threads);
+
+    /**
+     * Gets the server channel class for this transport.
+     *
+     * @return the server channel class.
+     */
+    public abstract Class<? extends ServerChannel> getServerChannel();
+
+    /**
+     * Determines the transport the network should be built on. The native
+     * epoll transport is used if it is preferred and available on this
+     * platform, otherwise the network falls back to NIO. The epoll transport
+     * allocates its event arrays off-heap, so it is not available when direct
+     * memory access is not.
+     *
+     * @return the transport to build the network on.
+     */
+    public static NetworkTransport determine() {
+        if (NetworkConstants.PREFER_EPOLL && Epoll.isAvailable() && PlatformDependent.hasUnsafe())
+            return EPOLL;
+        return NIO;
+    }
+}
@@ -7,8 +7,9 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.socket.SocketChannel;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
 import com.asteria.game.World;
 import com.asteria.game.character.player.IOState;
@@ -17,12 +18,17 @@ import com.asteria.game.character.player.Rights;
 import com.asteria.game.character.player.serialize.PlayerSerialization;
 import com.asteria.net.codec.MessageDecoder;
 import com.asteria.net.codec.MessageEncoder;
+import com.asteria.net.login.LoginExecutor;
 import com.asteria.net.login.LoginResponse;
 import com.asteria.net.message.InputMessage;
 import com.asteria.net.message.InputMessageListener;
+import com.asteria.net.message.InputMessageQueue;
 import com.asteria.net.message.LoginDetailsMessage;
 import com.asteria.net.message.Message;
 import com.asteria.net.message.MessageBuilder;
+import com.asteria.net.message.MessagePriority;
+import com.asteria.net.message.OutputMessageQueue;
+import com.asteria.utility.LoggerUtils;
 import com.asteria.utility.TextUtils;
 
 /**
@@ -34,10 +40,36 @@ import com.asteria.utility.TextUtils;
  */
 public final class PlayerIO {
 
+    /**
+     * The logger that will print important information.
+     */
+    private static Logger logger = LoggerUtils.getLogger(PlayerIO.class);
+
+    /**
+     * The array of message priorities, in the order they are handled.
+     */
+    private static final MessagePriority[] PRIORITIES = MessagePriority.values();
+
     /**
      * The queue of messages that will be handled on the next sequence.
      */
-    private final Queue<InputMessage> messageQueue = new ConcurrentLinkedQueue<>();
+    private final InputMessageQueue messageQueue = new InputMessageQueue();
+
+    /**
+     * The amount of messages that have been written but not yet flushed.
+     */
+    private final AtomicInteger unflushed = new AtomicInteger();
+
+    /**
+     * The backlog of outgoing messages that could not be written yet.
+     */
+    private final OutputMessageQueue backlog = new OutputMessageQueue();
+
+    /**
+     * The flag that determines if this session is registered to its host
+     * within the {@link ConnectionHandler}.
+     */
+    private final AtomicBoolean registered = new AtomicBoolean();
 
     /**
      * The channel that will manage the connection for this player.
@@ -57,7 +89,7 @@ public final class PlayerIO {
     /**
      * The current state of this I/O session.
      */
-    private IOState state = IOState.CONNECTED;
+    private volatile IOState state = IOState.CONNECTED;
 
     /**
      * The current login response for this session.
@@ -75,6 +107,24 @@ public final class PlayerIO {
         this.response = ConnectionHandler.evaluate(host);
         this.channel = channel;
         this.player = new Player(this);
+        this.registered.set(response == LoginResponse.NORMAL);
+
+        // Sessions that never make it into the game are unregistered as soon
+        // as the channel is closed.
+        channel.closeFuture().addListener(f -> {
+            if (state != IOState.LOGGED_IN && state != IOState.LOGGING_OUT)
+                unregister();
+        });
+    }
+
+    /**
+     * Unregisters this session from the host it is connected from within the
+     * {@link ConnectionHandler}. This only has an effect the first time it is
+     * called.
+     */
+    public void unregister() {
+        if (registered.compareAndSet(true, false))
+            ConnectionHandler.remove(host);
     }
 
     @Override
@@ -84,22 +134,114 @@ public final class PlayerIO {
 
     /**
      * Queues the {@code msg} for this session to be encoded and sent to the
-     * client.
+     * client. The message is not flushed until the end of the sequence, unless
+     * the {@link NetworkConstants#FLUSH_THRESHOLD} is reached before then. If
+     * the channel is not writable the message is held in the backlog instead.
      *
      * @param msg
      *            the message to queue.
      */
     public void queue(MessageBuilder msg) {
+        queue(null, msg);
+    }
+
+    /**
+     * Queues the {@code msg} for this session to be encoded and sent to the
+     * client, the same way as {@link #queue(MessageBuilder)}. If the message
+     * is held in the backlog it supersedes any backlogged message with the
+     * same {@code opcode} and {@code id}.
+     *
+     * @param msg
+     *            the message to queue.
+     * @param opcode
+     *            the opcode of the message.
+     * @param id
+     *            the identifier of the state the message sets on the client.
+     */
+    public void queue(MessageBuilder msg, int opcode, int id) {
+        queue(((long) opcode << 32) | (id & 0xffffffffL), msg);
+    }
+
+    /**
+     * Writes {@code msg} to the channel if it is writable and nothing is
+     * backlogged, or adds it to the backlog otherwise. The channel is closed if
+     * the backlog grows past {@link NetworkConstants#BACKLOG_LIMIT}.
+     *
+     * @param key
+     *            the key of the message within the backlog, or {@code null}
+     *            if it cannot be superseded.
+     * @param msg
+     *            the message to queue.
+     */
+    private void queue(Object key, MessageBuilder msg) {
         try {
-            if (!channel.isOpen())
+            if (!channel.isOpen()) {
+                msg.release();
+                return;
+            }
+            if (backlog.isEmpty() && channel.isWritable()) {
+                write(msg);
                 return;
-            channel.writeAndFlush(msg);
+            }
+            backlog.add(key, msg);
+            if (backlog.size() > NetworkConstants.BACKLOG_LIMIT) {
+                logger.info(this + " exceeded the outgoing backlog limit.");
+                backlog.clear();
+                channel.close();
+            }
         } catch (Exception ex) {
             ex.printStackTrace();
             channel.close();
         }
     }
 
+    /**
+     * Writes {@code msg} to the channel, flushing early if the
+     * {@link NetworkConstants#FLUSH_THRESHOLD} has been reached.
+     *
+     * @param msg
+     *            the message to write.
+     */
+    private void write(MessageBuilder msg) {
+        channel.write(msg);
+        int threshold = NetworkConstants.FLUSH_THRESHOLD;
+        if (unflushed.incrementAndGet() >= threshold && threshold != -1)
+            flushWrites();
+    }
+
+    /**
+     * Writes as many backlogged messages as the channel will take, and then
+     * flushes all of the messages that have been queued for this session since
+     * the last flush. The channel is closed if the backlog has not moved for
+     * longer than {@link NetworkConstants#WRITE_STALL_TIMEOUT}.
+     */
+    public void flush() {
+        if (!backlog.isEmpty()) {
+            if (!channel.isOpen()) {
+                backlog.clear();
+                return;
+            }
+            MessageBuilder msg;
+            while (channel.isWritable() && (msg = backlog.poll()) != null)
+                write(msg);
+            if (backlog.getStalledTime() > NetworkConstants.WRITE_STALL_TIMEOUT) {
+                logger.info(this + " stopped reading and has been disconnected.");
+                backlog.clear();
+                channel.close();
+            }
+        }
+        flushWrites();
+    }
+
+    /**
+     * Flushes all of the messages that have been written for this session since
+     * the last flush, does nothing if no messages have been written.
+     */
+    private void flushWrites() {
+        if (unflushed.getAndSet(0) > 0)
+            channel.flush();
+    }
+
     /**
      * Uses state-machine to handle upstream messages from Netty.
      * 
@@ -109,9 +251,9 @@ public final class PlayerIO {
     public void handleIncomingMessage(Message msg) {
         switch (state) {
 
-        // Handle the login details, send the final response to the client
-        // before queuing the session over to the main game thread to be logged
-        // in on the next sequence.
+        // Handle the login details on the login worker thread, send the final
+        // response to the client before queuing the session over to the main
+        // game thread to be logged in on the next sequence.
         case LOGGING_IN:
             if (msg instanceof LoginDetailsMessage)
                 finalizeDetails((LoginDetailsMessage) msg);
@@ -121,19 +263,20 @@ public final class PlayerIO {
         // queuing them over to the main game thread to be processed on the next
         // sequence.
         case LOGGED_IN:
-            if (msg instanceof InputMessage) {
-                if (messageQueue.size() <= NetworkConstants.DECODE_LIMIT)
-                    messageQueue.add((InputMessage) msg);
-            }
+            if (msg instanceof InputMessage)
+                messageQueue.offer((InputMessage) msg);
             break;
         default:
+            if (msg instanceof InputMessage)
+                ((InputMessage) msg).getPayload().release();
             throw new IllegalStateException("Cannot receive upstream messages when " + state + ".");
         }
     }
 
     /**
      * Ensures that the login details are valid and completes the last part of
-     * the login protocol by sending the final login response code.
+     * the login protocol by sending the final login response code. This is
+     * executed on a login worker thread by the {@link LoginExecutor}.
      * 
      * @param msg
      *            the message containing the login details.
@@ -185,21 +328,46 @@ public final class PlayerIO {
     }
 
     /**
-     * Handles all of the queued messages from the {@link MessageDecoder} by
-     * polling the internal queue.
+     * Handles the queued messages from the {@link MessageDecoder} by polling
+     * the internal queue, in order of priority. Only up to the budget of each
+     * priority is handled, any messages left over are handled on the next
+     * sequence.
      */
     public void handleQueuedMessages() {
-        InputMessage msg;
-        while ((msg = messageQueue.poll()) != null) {
-            try {
-                InputMessageListener listener = NetworkConstants.MESSAGES[msg.getOpcode()];
-                listener.handleMessage(player, msg.getOpcode(), msg.getSize(), msg.getPayload());
-            } catch (Exception e) {
-                e.printStackTrace();
+        for (MessagePriority priority : PRIORITIES) {
+            int budget = priority.getBudget();
+            InputMessage msg;
+            while (budget-- > 0 && (msg = messageQueue.poll(priority)) != null) {
+                try {
+                    InputMessageListener listener = NetworkConstants.MESSAGES[msg.getOpcode()];
+                    listener.handleMessage(player, msg.getOpcode(), msg.getSize(), msg.getPayload());
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    msg.getPayload().release();
+                }
             }
         }
     }
 
+    /**
+     * Releases all of the queued messages from the {@link MessageDecoder}
+     * without handling them, used once the player has been logged out.
+     */
+    public void releaseQueuedMessages() {
+        messageQueue.clear();
+        backlog.clear();
+    }
+
+    /**
+     * Gets the backlog of outgoing messages that could not be written yet.
+     *
+     * @return the outgoing backlog.
+     */
+    public OutputMessageQueue getBacklog() {
+        return backlog;
+    }
+
     /**
      * Gets the channel that will manage the connection for this player.
      *
@@ -6,7 +6,6 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.logging.Logger;
 
 import com.asteria.Server;
@@ -63,16 +62,22 @@ public final class MessageDecoder extends ByteToMessageDecoder {
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-        switch (state) {
-        case OPCODE:
-            opcode(ctx, in).ifPresent(out::add);
-            break;
-        case SIZE:
-            size(in);
-            break;
-        case PAYLOAD:
-            payload(ctx, in).ifPresent(out::add);
-            break;
+
+        // Keep decoding until there isn't enough data left to progress, so
+        // every message in the buffer is decoded in a single call.
+        boolean decoding = true;
+        while (decoding) {
+            switch (state) {
+            case OPCODE:
+                decoding = opcode(ctx, in, out);
+                break;
+            case SIZE:
+                decoding = size(in);
+                break;
+            case PAYLOAD:
+                decoding = payload(ctx, in, out);
+                break;
+            }
         }
     }
 
@@ -86,19 +91,23 @@ public final class MessageDecoder extends ByteToMessageDecoder {
      *            instance.
      * @param msg
      *            the message to decode the opcode from.
-     * @return an optional containing a message with no payload, or an empty
-     *         optional.
+     * @param out
+     *            the list that messages with no payload will be added to.
+     * @return {@code true} if the opcode was decoded, {@code false} if there
+     *         was not enough data.
      */
-    private Optional<InputMessage> opcode(ChannelHandlerContext ctx, ByteBuf msg) {
-        if (msg.isReadable()) {
-            opcode = msg.readUnsignedByte();
-            opcode = (opcode - decryptor.getKey()) & 0xFF;
-            size = NetworkConstants.MESSAGE_SIZES[opcode];
-            if (size == 0)
-                return message(ctx, Unpooled.EMPTY_BUFFER);
-            state = size == NetworkConstants.VAR_SIZE || size == NetworkConstants.VAR_SIZE_SHORT ? State.SIZE : State.PAYLOAD;
+    private boolean opcode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        if (!msg.isReadable())
+            return false;
+        opcode = msg.readUnsignedByte();
+        opcode = (opcode - decryptor.getKey()) & 0xFF;
+        size = NetworkConstants.MESSAGE_SIZES[opcode];
+        if (size == 0) {
+            message(ctx, Unpooled.EMPTY_BUFFER, out);
+            return true;
         }
-        return Optional.empty();
+        state = size == NetworkConstants.VAR_SIZE || size == NetworkConstants.VAR_SIZE_SHORT ? State.SIZE : State.PAYLOAD;
+        return true;
     }
 
     /**
@@ -107,40 +116,49 @@ public final class MessageDecoder extends ByteToMessageDecoder {
      * 
      * @param msg
      *            the message to decode the size from.
+     * @return {@code true} if the size was decoded, {@code false} if there was
+     *         not enough data.
      */
-    private void size(ByteBuf msg) {
+    private boolean size(ByteBuf msg) {
         int bytes = size == NetworkConstants.VAR_SIZE ? Byte.BYTES : Short.BYTES;
-        if (msg.isReadable(bytes)) {
-            size = 0;
-            for (int i = 0; i < bytes; i++)
-                size |= msg.readUnsignedByte() << 8 * (bytes - 1 - i);
-            state = State.PAYLOAD;
-        }
+        if (!msg.isReadable(bytes))
+            return false;
+        size = 0;
+        for (int i = 0; i < bytes; i++)
+            size |= msg.readUnsignedByte() << 8 * (bytes - 1 - i);
+        state = State.PAYLOAD;
+        return true;
     }
 
     /**
      * Decode the payload for this message, then queue it over to be received
-     * upstream by the Netty channel handler.
+     * upstream by the Netty channel handler. The payload is a retained slice
+     * of {@code msg} rather than a copy, and is released once the message has
+     * been handled.
      * 
      * @param ctx
      *            the context for our channel, used to retrieve the session
      *            instance.
      * @param msg
      *            the message to decode the payload from.
-     * @return an optional containing the successfully decoded
+     * @param out
+     *            the list that the decoded message will be added to.
+     * @return {@code true} if the payload was decoded, {@code false} if there
+     *         was not enough data.
      */
-    private Optional<InputMessage> payload(ChannelHandlerContext ctx, ByteBuf msg) {
-        if (msg.isReadable(size))
-            return message(ctx, msg.readBytes(size));
-        return Optional.empty();
+    private boolean payload(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        if (!msg.isReadable(size))
+            return false;
+        message(ctx, msg.readSlice(size).retain(), out);
+        return true;
     }
 
     /**
      * Determines if an {@link InputMessageListener} is available for the
-     * current opcode, if it is it returns a new {@code InputMessage} wrapped in
-     * an optional, if not it returns an empty optional. Before this method
-     * returns, the state is reset to {@code OPCODE} and the opcode and size
-     * values are reset to {@code -1}.
+     * current opcode, if it is it adds a new {@code InputMessage} to
+     * {@code out}, if not the payload is released. Before this method returns,
+     * the state is reset to {@code OPCODE} and the opcode and size values are
+     * reset to {@code -1}.
      * 
      * 
      * @param ctx
@@ -148,13 +166,16 @@ public final class MessageDecoder extends ByteToMessageDecoder {
      *            instance.
      * @param payload
      *            the payload to pack in this message.
-     * @return an optional containing the message if available, an empty
-     *         optional otherwise.
+     * @param out
+     *            the list that the message will be added to.
      */
-    private Optional<InputMessage> message(ChannelHandlerContext ctx, ByteBuf payload) {
+    private void message(ChannelHandlerContext ctx, ByteBuf payload, List<Object> out) {
         try {
-            if (NetworkConstants.MESSAGES[opcode] != null)
-                return Optional.of(new InputMessage(opcode, size, MessageBuilder.create(payload)));
+            if (NetworkConstants.MESSAGES[opcode] != null) {
+                out.add(new InputMessage(opcode, size, MessageBuilder.create(payload)));
+                return;
+            }
+            payload.release();
             if (Server.DEBUG) {
                 PlayerIO session = ctx.channel().attr(NetworkConstants.SESSION_KEY).get();
                 logger.info(session + " unhandled upstream message [opcode= " + opcode + ", size= " + size + "]");
@@ -164,7 +185,6 @@ public final class MessageDecoder extends ByteToMessageDecoder {
             opcode = -1;
             size = -1;
         }
-        return Optional.empty();
     }
 
     /**
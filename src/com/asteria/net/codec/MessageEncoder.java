@@ -2,18 +2,27 @@ package com.asteria.net.codec;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
 
 import com.asteria.net.ISAACCipher;
 import com.asteria.net.message.MessageBuilder;
 
 /**
- * The {@link MessageToByteEncoder} implementation that encodes and queues the
- * game logic for all outgoing {@link MessageBuilder}s.
+ * The {@link MessageToMessageEncoder} implementation that encodes and queues
+ * the game logic for all outgoing {@link MessageBuilder}s.
+ * <p>
+ * The opcode of each message is encrypted in place and the backing buffer of
+ * the message is passed downstream as is, so the payload is never copied. This
+ * means that a message can only be queued for a single session, unless it is
+ * shared through {@link MessageBuilder#share()}. The content of a shared
+ * message is left untouched, and the encrypted opcode is written in its own
+ * buffer ahead of the rest of the message.
  * 
  * @author lare96 <http://github.org/lare96>
  */
-public final class MessageEncoder extends MessageToByteEncoder<MessageBuilder> {
+public final class MessageEncoder extends MessageToMessageEncoder<MessageBuilder> {
 
     /**
      * The ISAAC that will encrypt outgoing messages.
@@ -31,13 +40,21 @@ public final class MessageEncoder extends MessageToByteEncoder<MessageBuilder> {
     }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, MessageBuilder msg, ByteBuf out) throws Exception {
+    protected void encode(ChannelHandlerContext ctx, MessageBuilder msg, List<Object> out) throws Exception {
 
-        // Generate a new encryption key using ISAAC, encode the message and
-        // write it to the client.
+        // Generate a new encryption key using ISAAC, encode the opcode of the
+        // message and pass the buffer along to be written to the client.
         ByteBuf internal = msg.buffer();
         int value = internal.getByte(0) + encryptor.getKey();
+        if (msg.isShared()) {
+            out.add(ctx.alloc().buffer(1).writeByte(value));
+            out.add(internal.slice(1, internal.readableBytes() - 1).retain());
+            return;
+        }
         internal.setByte(0, value);
-        out.writeBytes(internal);
+
+        // The message is released by the superclass once this method returns,
+        // so retain the buffer until it has been written to the socket.
+        out.add(internal.retain());
     }
 }
@@ -0,0 +1,187 @@
+package com.asteria.net.login;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import com.asteria.net.NetworkConstants;
+import com.asteria.net.PlayerIO;
+import com.asteria.net.message.LoginDetailsMessage;
+import com.asteria.utility.LatencyHistogram;
+import com.asteria.utility.LoggerUtils;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * The class that decodes and finalizes logins on a bounded pool of worker
+ * threads rather than on the networking threads. Decrypting the login block and
+ * loading the character file are both expensive, and doing either on a
+ * networking thread stalls every other connection handled by that thread.
+ * <p>
+ * <p>
+ * Logins wait in a bounded queue for a worker to become available. Once the
+ * queue is full any further logins are turned away with a response that tells
+ * the client to try again, rather than being queued up indefinitely.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class LoginExecutor {
+
+    /**
+     * The logger that will print important information.
+     */
+    private static Logger logger = LoggerUtils.getLogger(LoginExecutor.class);
+
+    /**
+     * The executor that will finalize logins on the worker threads.
+     */
+    private static final ThreadPoolExecutor EXECUTOR = createLoginExecutor();
+
+    /**
+     * The histogram of the time taken to finalize logins, from when they were
+     * submitted to when they were completed.
+     */
+    private static final LatencyHistogram LATENCY = new LatencyHistogram();
+
+    /**
+     * The amount of logins that have been completed.
+     */
+    private static final AtomicLong COMPLETED = new AtomicLong();
+
+    /**
+     * The amount of logins that have been rejected because the queue was full.
+     */
+    private static final AtomicLong REJECTED = new AtomicLong();
+
+    /**
+     * The default constructor.
+     *
+     * @throws UnsupportedOperationException
+     *             if this class is instantiated.
+     */
+    private LoginExecutor() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Submits a login to be finalized on a worker thread. The login details are
+     * decoded by {@code details} on the worker thread, and then handled by the
+     * session of the channel. If the queue is full the login is rejected and
+     * the channel is closed.
+     *
+     * @param ctx
+     *            the context of the channel that is logging in.
+     * @param details
+     *            the function that decodes the login details.
+     */
+    public static void submit(ChannelHandlerContext ctx, Callable<LoginDetailsMessage> details) {
+        long start = System.nanoTime();
+        try {
+            EXECUTOR.execute(() -> {
+                try {
+                    if (!ctx.channel().isActive())
+                        return;
+                    PlayerIO session = ctx.channel().attr(NetworkConstants.SESSION_KEY).get();
+                    if (session == null)
+                        throw new IllegalStateException("session == null");
+                    session.handleIncomingMessage(details.call());
+                } catch (Exception e) {
+                    ctx.fireExceptionCaught(e);
+                } finally {
+                    LATENCY.recordNanos(System.nanoTime() - start);
+                    long completed = COMPLETED.incrementAndGet();
+                    if (NetworkConstants.LOGIN_LOG_INTERVAL > 0 && completed % NetworkConstants.LOGIN_LOG_INTERVAL == 0)
+                        logger.info(summary());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            REJECTED.incrementAndGet();
+            reject(ctx.channel());
+        }
+    }
+
+    /**
+     * Sends a response to {@code channel} telling the client to try again
+     * later, and closes the channel once it has been sent.
+     *
+     * @param channel
+     *            the channel to reject.
+     */
+    private static void reject(Channel channel) {
+        ByteBuf resp = Unpooled.buffer(3);
+        resp.writeByte(LoginResponse.PLEASE_TRY_AGAIN.getCode());
+        resp.writeByte(0);
+        resp.writeByte(0);
+        channel.writeAndFlush(resp).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /**
+     * Creates a single line summary of the statistics recorded so far.
+     *
+     * @return the summary of this executor.
+     */
+    private static String summary() {
+        return String.format("Login profile [completed=%d, rejected=%d, queued=%d] p50=%.2fms p99=%.2fms max=%.2fms",
+            COMPLETED.get(), REJECTED.get(), getQueueDepth(), LATENCY.getValueAtPercentile(50) / 1000D, LATENCY
+                .getValueAtPercentile(99) / 1000D, LATENCY.getMaximum() / 1000D);
+    }
+
+    /**
+     * Gets the amount of logins waiting for a worker to become available.
+     *
+     * @return the amount of queued logins.
+     */
+    public static int getQueueDepth() {
+        return EXECUTOR.getQueue().size();
+    }
+
+    /**
+     * Gets the histogram of the time taken to finalize logins.
+     *
+     * @return the login latency histogram.
+     */
+    public static LatencyHistogram getLatency() {
+        return LATENCY;
+    }
+
+    /**
+     * Gets the amount of logins that have been completed.
+     *
+     * @return the amount of completed logins.
+     */
+    public static long getCompleted() {
+        return COMPLETED.get();
+    }
+
+    /**
+     * Gets the amount of logins that have been rejected because the queue was
+     * full.
+     *
+     * @return the amount of rejected logins.
+     */
+    public static long getRejected() {
+        return REJECTED.get();
+    }
+
+    /**
+     * Creates and configures the executor that will finalize logins.
+     *
+     * @return the newly created and configured executor.
+     */
+    private static ThreadPoolExecutor createLoginExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(NetworkConstants.LOGIN_THREADS, NetworkConstants.LOGIN_THREADS, 60,
+            TimeUnit.SECONDS, new ArrayBlockingQueue<>(NetworkConstants.LOGIN_QUEUE_SIZE), new ThreadFactoryBuilder()
+                .setNameFormat("LoginThread-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
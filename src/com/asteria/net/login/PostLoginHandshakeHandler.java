@@ -15,14 +15,24 @@ import com.asteria.net.message.MessageBuilder;
 
 /**
  * The {@link ByteToMessageDecoder} implementation that will manage the
- * post-handshake section of the login protocol.
+ * post-handshake section of the login protocol. The login block is read on the
+ * networking thread, but decoded and finalized by the {@link LoginExecutor}.
  *
  * @author lare96 <http://github.com/lare96>
  */
 public final class PostLoginHandshakeHandler extends ByteToMessageDecoder {
 
+    /**
+     * The flag that determines if the login block has been submitted to the
+     * {@link LoginExecutor}. Any data received after that is held until this
+     * handler is removed from the pipeline.
+     */
+    private boolean submitted;
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        if (submitted)
+            return;
 
         // Read the login type, validate it.
         if (in.readableBytes() < 2)
@@ -51,18 +61,35 @@ public final class PostLoginHandshakeHandler extends ByteToMessageDecoder {
         for (int i = 0; i < 9; i++)
             in.readInt();
 
-        // Either decode RSA, or proceed normally depending on the network
-        // settings.
+        // Read the rest of the login block, and submit it to be decoded and
+        // finalized off of the networking thread.
         loginEncryptPacketSize--;
         in.readByte();
+        byte[] block = new byte[loginEncryptPacketSize];
+        in.readBytes(block);
+        submitted = true;
+        LoginExecutor.submit(ctx, () -> decodeBlock(ctx, block));
+    }
+
+    /**
+     * Decodes the login details from the login block. Either decodes RSA, or
+     * proceeds normally depending on the network settings.
+     *
+     * @param ctx
+     *            the context of the channel that is logging in.
+     * @param block
+     *            the data within the login block.
+     * @return the decoded login details.
+     * @throws Exception
+     *             if the login block is invalid.
+     */
+    private static LoginDetailsMessage decodeBlock(ChannelHandlerContext ctx, byte[] block) throws Exception {
         String username = null;
         String password = null;
         ISAACCipher encryptor = null;
         ISAACCipher decryptor = null;
         if (NetworkConstants.DECODE_RSA) {
-            byte[] encryptionBytes = new byte[loginEncryptPacketSize];
-            in.readBytes(encryptionBytes);
-            ByteBuf rsaBuffer = Unpooled.wrappedBuffer(new BigInteger(encryptionBytes).modPow(NetworkConstants.RSA_EXPONENT,
+            ByteBuf rsaBuffer = Unpooled.wrappedBuffer(new BigInteger(block).modPow(NetworkConstants.RSA_EXPONENT,
                 NetworkConstants.RSA_MODULUS).toByteArray());
             int rsaOpcode = rsaBuffer.readByte();
             if (rsaOpcode != 10)
@@ -79,6 +106,7 @@ public final class PostLoginHandshakeHandler extends ByteToMessageDecoder {
             username = db.getString();
             password = db.getString();
         } else {
+            ByteBuf in = Unpooled.wrappedBuffer(block);
             in.readByte();
             long clientHalf = in.readLong();
             long serverHalf = in.readLong();
@@ -94,8 +122,8 @@ public final class PostLoginHandshakeHandler extends ByteToMessageDecoder {
         }
 
         // Finally, we've decoded all the data we need for the final response of
-        // the login protocol. Here we send it as an upstream Netty message to
-        // be handled in the PlayerIO class.
-        out.add(new LoginDetailsMessage(ctx, username, password, encryptor, decryptor));
+        // the login protocol. Here we return it to be handled in the PlayerIO
+        // class.
+        return new LoginDetailsMessage(ctx, username, password, encryptor, decryptor);
     }
 }
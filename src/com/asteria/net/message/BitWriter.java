@@ -0,0 +1,113 @@
+package com.asteria.net.message;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The writer used by a {@link MessageBuilder} while it is in bit access mode.
+ * Bits are packed into a {@code 64} bit accumulator and moved to the backing
+ * buffer {@code 32} bits at a time, instead of reading and rewriting the
+ * backing buffer one byte at a time for every field.
+ * <p>
+ * <p>
+ * Nothing is written to the backing buffer except by this writer between
+ * {@link #start(int)} and {@link #finish()}, so the writer index of the buffer
+ * always marks the end of the bits that have been moved out of the
+ * accumulator.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+final class BitWriter {
+
+    /**
+     * The backing buffer bits are moved to.
+     */
+    private final ByteBuf buf;
+
+    /**
+     * The accumulator that bits are packed into, the most recently written bit
+     * is the lowest bit.
+     */
+    private long accumulator;
+
+    /**
+     * The amount of bits within the accumulator that have not been moved to
+     * the backing buffer, always less than {@code 32} between writes.
+     */
+    private int bits;
+
+    /**
+     * The flag that determines if this writer is currently in use.
+     */
+    private boolean active;
+
+    /**
+     * Creates a new {@link BitWriter}.
+     *
+     * @param buf
+     *            the backing buffer bits are moved to.
+     */
+    BitWriter(ByteBuf buf) {
+        this.buf = buf;
+    }
+
+    /**
+     * Starts writing bits, making room for {@code maximumBits} up front so that
+     * the backing buffer never has to grow while bits are being written.
+     *
+     * @param maximumBits
+     *            the most bits that will be written, or {@code 0} if unknown.
+     * @throws IllegalStateException
+     *             if this writer is already in use.
+     */
+    void start(int maximumBits) {
+        if (active)
+            throw new IllegalStateException("Bit access has already been started.");
+        if (maximumBits > 0)
+            buf.ensureWritable((maximumBits + 7) >> 3);
+        accumulator = 0;
+        bits = 0;
+        active = true;
+    }
+
+    /**
+     * Writes the lowest {@code amount} bits of {@code value}.
+     *
+     * @param amount
+     *            the amount of bits to write.
+     * @param value
+     *            the value of the bits.
+     * @throws IllegalStateException
+     *             if this writer is not in use.
+     */
+    void put(int amount, int value) {
+        if (!active)
+            throw new IllegalStateException("Bit access has not been started.");
+        accumulator = (accumulator << amount) | (value & (0xFFFFFFFFL >>> (32 - amount)));
+        bits += amount;
+        if (bits >= 32) {
+            bits -= 32;
+            buf.writeInt((int) (accumulator >>> bits));
+        }
+    }
+
+    /**
+     * Moves the remaining bits to the backing buffer, padding the last byte
+     * with zeros, and stops writing bits.
+     *
+     * @throws IllegalStateException
+     *             if this writer is not in use.
+     */
+    void finish() {
+        if (!active)
+            throw new IllegalStateException("Bit access has not been started.");
+        while (bits >= 8) {
+            bits -= 8;
+            buf.writeByte((int) (accumulator >>> bits));
+        }
+        if (bits > 0) {
+            buf.writeByte((int) (accumulator << (8 - bits)));
+            bits = 0;
+        }
+        active = false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.asteria.net.message;
+
+import java.util.EnumMap;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.asteria.net.NetworkConstants;
+
+/**
+ * The queue of incoming messages for a single session, waiting to be handled
+ * on the main game thread. Messages are split into a bounded queue for each
+ * {@link MessagePriority} so that a flood of low priority messages can never
+ * push out the gameplay messages that matter most.
+ * <p>
+ * <p>
+ * Messages are added by the networking thread of the session and polled by the
+ * main game thread. Messages that do not fit within the queue for their
+ * priority are released and counted as dropped for their opcode.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class InputMessageQueue {
+
+    /**
+     * The amount of messages that have been dropped for each opcode, across all
+     * sessions.
+     */
+    private static final AtomicLongArray DROPPED = new AtomicLongArray(NetworkConstants.MESSAGES.length);
+
+    /**
+     * The queues of messages for each priority.
+     */
+    private final EnumMap<MessagePriority, Queue<InputMessage>> queues = new EnumMap<>(MessagePriority.class);
+
+    /**
+     * Creates a new {@link InputMessageQueue}.
+     */
+    public InputMessageQueue() {
+        for (MessagePriority priority : MessagePriority.values())
+            queues.put(priority, new ArrayBlockingQueue<>(priority.getCapacity()));
+    }
+
+    /**
+     * Adds {@code msg} to the queue for its priority. If that queue is full
+     * the message is released and dropped instead.
+     *
+     * @param msg
+     *            the message to add.
+     * @return {@code true} if the message was added, {@code false} if it was
+     *         dropped.
+     */
+    public boolean offer(InputMessage msg) {
+        if (queues.get(priorityOf(msg.getOpcode())).offer(msg))
+            return true;
+        msg.getPayload().release();
+        DROPPED.incrementAndGet(msg.getOpcode());
+        return false;
+    }
+
+    /**
+     * Retrieves and removes the next message of {@code priority}.
+     *
+     * @param priority
+     *            the priority of the message to poll.
+     * @return the next message, or {@code null} if there are none queued.
+     */
+    public InputMessage poll(MessagePriority priority) {
+        return queues.get(priority).poll();
+    }
+
+    /**
+     * Removes and releases every message within this queue.
+     */
+    public void clear() {
+        for (Queue<InputMessage> queue : queues.values()) {
+            InputMessage msg;
+            while ((msg = queue.poll()) != null)
+                msg.getPayload().release();
+        }
+    }
+
+    /**
+     * Gets the priority messages with {@code opcode} are queued with.
+     *
+     * @param opcode
+     *            the opcode of the message.
+     * @return the priority of the message.
+     */
+    private static MessagePriority priorityOf(int opcode) {
+        MessagePriority priority = NetworkConstants.MESSAGE_PRIORITIES[opcode];
+        return priority == null ? MessagePriority.NORMAL : priority;
+    }
+
+    /**
+     * Gets the amount of messages with {@code opcode} that have been dropped,
+     * across all sessions.
+     *
+     * @param opcode
+     *            the opcode to get the amount for.
+     * @return the amount of dropped messages.
+     */
+    public static long getDropped(int opcode) {
+        return DROPPED.get(opcode);
+    }
+}
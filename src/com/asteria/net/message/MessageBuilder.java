@@ -1,36 +1,48 @@
 package com.asteria.net.message;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ReferenceCounted;
 
 import com.asteria.net.ByteOrder;
 import com.asteria.net.ValueType;
+import com.asteria.net.codec.MessageEncoder;
 
 /**
  * The {@link Message} implementation that functions as a dynamic buffer wrapper
  * backed by a {@link ByteBuf} that is used for reading and writing data.
+ * <p>
+ * Buffers created by this class are allocated from a pool and are reference
+ * counted. Once a message builder is written to a channel it is released by
+ * the {@link MessageEncoder}, otherwise it must be released manually when it
+ * is no longer needed.
  *
  * @author lare96 <http://github.com/lare96>
  * @author blakeman8192
  */
-public final class MessageBuilder implements Message {
+public final class MessageBuilder implements Message, ReferenceCounted {
 
     /**
-     * An array of the bit masks used for writing bits.
+     * The default capacity of this buffer.
      */
-    private static final int[] BIT_MASK = { 0, 0x1, 0x3, 0x7, 0xf, 0x1f, 0x3f, 0x7f, 0xff, 0x1ff, 0x3ff, 0x7ff, 0xfff, 0x1fff, 0x3fff,
-            0x7fff, 0xffff, 0x1ffff, 0x3ffff, 0x7ffff, 0xfffff, 0x1fffff, 0x3fffff, 0x7fffff, 0xffffff, 0x1ffffff, 0x3ffffff, 0x7ffffff,
-            0xfffffff, 0x1fffffff, 0x3fffffff, 0x7fffffff, -1 };
+    private static final int DEFAULT_CAP = 128;
 
     /**
-     * The default capacity of this buffer.
+     * The allocator that buffers will be allocated from, direct buffers are
+     * preferred where the platform supports them.
      */
-    private static final int DEFAULT_CAP = 128;
+    private static final PooledByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
 
     /**
      * The backing byte buffer used to read and write data.
      */
-    private ByteBuf buf;
+    private final ByteBuf buf;
+
+    /**
+     * The flag that determines if the content of the backing buffer is shared
+     * with other message builders.
+     */
+    private final boolean shared;
 
     /**
      * The position of the buffer when a variable length message is created.
@@ -38,9 +50,10 @@ public final class MessageBuilder implements Message {
     private int varLengthIndex = 0;
 
     /**
-     * The current bit position when writing bits.
+     * The writer used while in bit access mode, created the first time bit
+     * access is started.
      */
-    private int bitIndex = 0;
+    private BitWriter bitWriter;
 
     /**
      * Creates a new {@link MessageBuilder} with the {@code buf} backing buffer.
@@ -49,7 +62,21 @@ public final class MessageBuilder implements Message {
      *            the backing buffer used to read and write data.
      */
     private MessageBuilder(ByteBuf buf) {
+        this(buf, false);
+    }
+
+    /**
+     * Creates a new {@link MessageBuilder} with the {@code buf} backing buffer.
+     *
+     * @param buf
+     *            the backing buffer used to read and write data.
+     * @param shared
+     *            if the content of the backing buffer is shared with other
+     *            message builders.
+     */
+    private MessageBuilder(ByteBuf buf, boolean shared) {
         this.buf = buf;
+        this.shared = shared;
     }
 
     /**
@@ -65,14 +92,14 @@ public final class MessageBuilder implements Message {
 
     /**
      * Creates a new {@link MessageBuilder} with the {@code cap} as the
-     * capacity.
+     * capacity, allocated from the buffer pool.
      *
      * @param cap
      *            the capacity of the buffer.
      * @return the newly created buffer.
      */
     public static MessageBuilder create(int cap) {
-        return MessageBuilder.create(Unpooled.buffer(cap));
+        return MessageBuilder.create(ALLOCATOR.ioBuffer(cap));
     }
 
     /**
@@ -88,14 +115,35 @@ public final class MessageBuilder implements Message {
      * Prepares the buffer for writing bits.
      */
     public void startBitAccess() {
-        bitIndex = buf.writerIndex() * 8;
+        startBitAccess(0);
+    }
+
+    /**
+     * Prepares the buffer for writing bits, making room for
+     * {@code maximumBits} up front so the buffer does not have to grow while
+     * bits are written. No bytes may be written until {@code endBitAccess()}
+     * is called.
+     *
+     * @param maximumBits
+     *            the most bits that will be written before bit access is
+     *            ended.
+     */
+    public void startBitAccess(int maximumBits) {
+        if (bitWriter == null)
+            bitWriter = new BitWriter(buf);
+        bitWriter.start(maximumBits);
     }
 
     /**
      * Prepares the buffer for writing bytes.
+     *
+     * @throws IllegalStateException
+     *             if bit access has not been started.
      */
     public void endBitAccess() {
-        buf.writerIndex((bitIndex + 7) / 8);
+        if (bitWriter == null)
+            throw new IllegalStateException("Bit access has not been started.");
+        bitWriter.finish();
     }
 
     /**
@@ -177,9 +225,7 @@ public final class MessageBuilder implements Message {
      * @return an instance of this message builder.
      */
     public MessageBuilder putBytes(ByteBuf from) {
-        for (int i = 0; i < from.writerIndex(); i++) {
-            put(from.getByte(i));
-        }
+        buf.writeBytes(from, 0, from.writerIndex());
         return this;
     }
 
@@ -219,38 +265,15 @@ public final class MessageBuilder implements Message {
      * @throws IllegalArgumentException
      *             if the number of bits is not between {@code 1} and {@code 32}
      *             inclusive.
+     * @throws IllegalStateException
+     *             if bit access has not been started.
      */
     public MessageBuilder putBits(int amount, int value) {
         if (amount < 0 || amount > 32)
             throw new IllegalArgumentException("Number of bits must be " + "between 1 and 32 inclusive.");
-        int bytePos = bitIndex >> 3;
-        int bitOffset = 8 - (bitIndex & 7);
-        bitIndex = bitIndex + amount;
-        int requiredSpace = bytePos - buf.writerIndex() + 1;
-        requiredSpace += (amount + 7) / 8;
-        if (buf.writableBytes() < requiredSpace) {
-            ByteBuf old = buf;
-            buf = Unpooled.buffer(old.capacity() + requiredSpace);
-            buf.writeBytes(old);
-        }
-        for (; amount > bitOffset; bitOffset = 8) {
-            byte tmp = buf.getByte(bytePos);
-            tmp &= ~BIT_MASK[bitOffset];
-            tmp |= (value >> (amount - bitOffset)) & BIT_MASK[bitOffset];
-            buf.setByte(bytePos++, tmp);
-            amount -= bitOffset;
-        }
-        if (amount == bitOffset) {
-            byte tmp = buf.getByte(bytePos);
-            tmp &= ~BIT_MASK[bitOffset];
-            tmp |= value & BIT_MASK[bitOffset];
-            buf.setByte(bytePos, tmp);
-        } else {
-            byte tmp = buf.getByte(bytePos);
-            tmp &= ~(BIT_MASK[amount] << (bitOffset - amount));
-            tmp |= (value & BIT_MASK[amount]) << (bitOffset - amount);
-            buf.setByte(bytePos, tmp);
-        }
+        if (bitWriter == null)
+            throw new IllegalStateException("Bit access has not been started.");
+        bitWriter.put(amount, value);
         return this;
     }
 
@@ -1007,5 +1030,55 @@ public final class MessageBuilder implements Message {
     public ByteBuf buffer() {
         return buf;
     }
+
+    /**
+     * Creates a new message builder that shares the content and the reference
+     * count of this message builder, but has its own indexes. The content is
+     * retained once for the new message builder. Shared messages are never
+     * modified when they are encoded, so the same message can be queued for
+     * any amount of sessions by sharing it once for each of them.
+     *
+     * @return the shared message builder.
+     */
+    public MessageBuilder share() {
+        return new MessageBuilder(buf.duplicate().retain(), true);
+    }
+
+    /**
+     * Determines if the content of this message builder is shared with other
+     * message builders.
+     *
+     * @return {@code true} if the content is shared, {@code false} otherwise.
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    @Override
+    public int refCnt() {
+        return buf.refCnt();
+    }
+
+    @Override
+    public MessageBuilder retain() {
+        buf.retain();
+        return this;
+    }
+
+    @Override
+    public MessageBuilder retain(int increment) {
+        buf.retain(increment);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buf.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buf.release(decrement);
+    }
 }
 
@@ -0,0 +1,65 @@
+package com.asteria.net.message;
+
+/**
+ * The enumerated type whose elements represent the priority classes incoming
+ * messages are queued and handled in. Messages of a higher priority are always
+ * handled before messages of a lower priority within the same sequence.
+ * <p>
+ * <p>
+ * Every gameplay and interaction message shares the {@link #NORMAL} class so
+ * that clicks are always handled in the order they were made. Only messages
+ * that can never change what the player is doing, like chat, commands, and
+ * idle state, are queued as {@link #LOW}.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public enum MessagePriority {
+    NORMAL(32, 13),
+    LOW(8, 2);
+
+    /**
+     * The maximum amount of messages of this priority that can be queued for a
+     * single session at once.
+     */
+    private final int capacity;
+
+    /**
+     * The maximum amount of messages of this priority that can be handled for
+     * a single session in one sequence.
+     */
+    private final int budget;
+
+    /**
+     * Creates a new {@link MessagePriority}.
+     *
+     * @param capacity
+     *            the maximum amount of messages that can be queued at once.
+     * @param budget
+     *            the maximum amount of messages that can be handled in one
+     *            sequence.
+     */
+    private MessagePriority(int capacity, int budget) {
+        this.capacity = capacity;
+        this.budget = budget;
+    }
+
+    /**
+     * Gets the maximum amount of messages of this priority that can be queued
+     * for a single session at once.
+     *
+     * @return the capacity.
+     */
+    public final int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the maximum amount of messages of this priority that can be handled
+     * for a single session in one sequence.
+     *
+     * @return the budget.
+     */
+    public final int getBudget() {
+        return budget;
+    }
+}
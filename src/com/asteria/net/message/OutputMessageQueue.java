@@ -0,0 +1,147 @@
+package com.asteria.net.message;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The backlog of outgoing messages for a single session, holding messages that
+ * could not be written because the channel was not writable. Messages are
+ * written in the order they were queued once the channel becomes writable
+ * again.
+ * <p>
+ * <p>
+ * Messages that only set the latest state of something on the client, like the
+ * text of an interface or the value of a setting, can be queued with a key. A
+ * message queued with the same key as a message already within the backlog
+ * supersedes it, the older message is released and never written. Messages are
+ * only ever superseded before they are encoded, so the ciphered opcodes stay
+ * in sync with the client.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class OutputMessageQueue {
+
+    /**
+     * The messages within this backlog mapped to their keys, in the order they
+     * were queued.
+     */
+    private final Map<Object, MessageBuilder> messages = new LinkedHashMap<>();
+
+    /**
+     * The time in nanoseconds a message was last taken from this backlog, or
+     * this backlog last became non-empty.
+     */
+    private long lastPolled;
+
+    /**
+     * The largest amount of messages that have been in this backlog at once.
+     */
+    private int peak;
+
+    /**
+     * The amount of messages that have been superseded within this backlog.
+     */
+    private long superseded;
+
+    /**
+     * Adds {@code msg} to the end of this backlog. If {@code key} is not
+     * {@code null}, any message already queued with the same key is removed
+     * and released.
+     *
+     * @param key
+     *            the key of the message, or {@code null} if it cannot be
+     *            superseded.
+     * @param msg
+     *            the message to add.
+     */
+    public void add(Object key, MessageBuilder msg) {
+        if (messages.isEmpty())
+            lastPolled = System.nanoTime();
+        if (key == null) {
+            key = new Object();
+        } else {
+            MessageBuilder previous = messages.remove(key);
+            if (previous != null) {
+                previous.release();
+                superseded++;
+            }
+        }
+        messages.put(key, msg);
+        peak = Math.max(peak, messages.size());
+    }
+
+    /**
+     * Retrieves and removes the message at the front of this backlog.
+     *
+     * @return the message, or {@code null} if this backlog is empty.
+     */
+    public MessageBuilder poll() {
+        Iterator<MessageBuilder> it = messages.values().iterator();
+        if (!it.hasNext())
+            return null;
+        MessageBuilder msg = it.next();
+        it.remove();
+        lastPolled = System.nanoTime();
+        return msg;
+    }
+
+    /**
+     * Removes and releases every message within this backlog.
+     */
+    public void clear() {
+        messages.values().forEach(MessageBuilder::release);
+        messages.clear();
+    }
+
+    /**
+     * Gets the time in milliseconds this backlog has gone without any messages
+     * being taken from it.
+     *
+     * @return the stalled time, or {@code 0} if this backlog is empty.
+     */
+    public long getStalledTime() {
+        if (messages.isEmpty())
+            return 0;
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastPolled);
+    }
+
+    /**
+     * Determines if this backlog is empty.
+     *
+     * @return {@code true} if this backlog is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return messages.isEmpty();
+    }
+
+    /**
+     * Gets the amount of messages within this backlog.
+     *
+     * @return the amount of messages.
+     */
+    public int size() {
+        return messages.size();
+    }
+
+    /**
+     * Gets the largest amount of messages that have been in this backlog at
+     * once.
+     *
+     * @return the peak amount of messages.
+     */
+    public int getPeak() {
+        return peak;
+    }
+
+    /**
+     * Gets the amount of messages that have been superseded within this
+     * backlog.
+     *
+     * @return the amount of superseded messages.
+     */
+    public long getSuperseded() {
+        return superseded;
+    }
+}
@@ -1,6 +1,8 @@
 package com.asteria.net.message;
 
-import java.util.Objects;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import com.asteria.game.NodeType;
 import com.asteria.game.World;
@@ -21,6 +23,12 @@ import com.google.common.base.Preconditions;
 /**
  * The utility class used to queue {@link MessageBuilder}s to be encoded and
  * written to the Client.
+ * <p>
+ * <p>
+ * A shadow of the interface strings, configuration states, walkable
+ * interface, and multi-combat icon last sent to the client is kept, and any
+ * of those messages that would not change what the client already has are
+ * not sent at all.
  *
  * @author lare96 <http://github.com/lare96>
  */
@@ -31,6 +39,29 @@ public final class OutputMessages {
      */
     private final Player player;
 
+    /**
+     * The text last sent to the client for each interface.
+     */
+    private final Map<Integer, String> strings = new HashMap<>();
+
+    /**
+     * The value last sent to the client for each configuration setting, in the
+     * form the client stores it.
+     */
+    private final Map<Integer, Integer> states = new HashMap<>();
+
+    /**
+     * The walkable interface last sent to the client, or {@code null} if none
+     * has been sent yet.
+     */
+    private Integer walkable;
+
+    /**
+     * The state of the multi-combat icon last sent to the client, or
+     * {@code null} if it has not been sent yet.
+     */
+    private Boolean multiIcon;
+
     /**
      * Creates a new {@link OutputMessages}.
      *
@@ -124,12 +155,7 @@ public final class OutputMessages {
      */
     public OutputMessages sendObjectAnimation(Position position, int animation, ObjectType type, ObjectDirection direction) {
         sendCoordinates(position);
-        MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(160);
-        msg.put(((0 & 7) << 4) + (0 & 7), ValueType.S);
-        msg.put((type.getId() << 2) + (direction.getId() & 3), ValueType.S);
-        msg.putShort(animation, ValueType.A);
-        player.getSession().queue(msg);
+        player.getSession().queue(objectAnimation(animation, type, direction));
         return this;
     }
 
@@ -148,9 +174,7 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendLocalObjectAnimation(Position position, int animation, ObjectType type, ObjectDirection direction) {
-        player.getMessages().sendObjectAnimation(position, animation, type, direction);
-        player.getLocalPlayers().stream().filter(Objects::nonNull).forEach(
-            p -> p.getMessages().sendObjectAnimation(position, animation, type, direction));
+        multicast(objectAnimation(animation, type, direction), position, localPlayers());
         return this;
     }
 
@@ -168,13 +192,7 @@ public final class OutputMessages {
      */
     public OutputMessages sendGraphic(int id, Position position, int level) {
         sendCoordinates(position);
-        MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(4);
-        msg.put(0);
-        msg.putShort(id);
-        msg.put(level);
-        msg.putShort(0);
-        player.getSession().queue(msg);
+        player.getSession().queue(graphic(id, level));
         return this;
     }
 
@@ -190,8 +208,7 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendLocalGraphic(int id, Position position, int level) {
-        player.getMessages().sendGraphic(id, position, level);
-        player.getLocalPlayers().stream().filter(Objects::nonNull).forEach(p -> p.getMessages().sendGraphic(id, position, level));
+        multicast(graphic(id, level), position, localPlayers());
         return this;
     }
 
@@ -207,7 +224,7 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public static void sendAllGraphic(int id, Position position, int level) {
-        World.getPlayers().forEach(p -> p.getMessages().sendGraphic(id, position, level));
+        multicast(graphic(id, level), position, World.getPlayers().stream());
     }
 
     /**
@@ -222,12 +239,7 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendSound(int id, int type, int delay) {
-        MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(174);
-        msg.putShort(id);
-        msg.put(type);
-        msg.putShort(delay);
-        player.getSession().queue(msg);
+        player.getSession().queue(sound(id, type, delay));
         return this;
     }
 
@@ -243,8 +255,7 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendLocalSound(int id, int type, int delay) {
-        player.getMessages().sendSound(id, type, delay);
-        player.getLocalPlayers().stream().filter(Objects::nonNull).forEach(p -> p.getMessages().sendSound(id, type, delay));
+        multicast(sound(id, type, delay), localPlayers());
         return this;
     }
 
@@ -274,6 +285,9 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendMultiIcon(boolean hide) {
+        if (multiIcon != null && multiIcon == hide)
+            return this;
+        multiIcon = hide;
         MessageBuilder msg = MessageBuilder.create();
         msg.newMessage(61);
         msg.put(hide ? 0 : 1);
@@ -420,7 +434,7 @@ public final class OutputMessages {
         MessageBuilder msg = MessageBuilder.create();
         msg.newVarShortMessage(241);
         msg.putShort(player.getPosition().getRegionY() + 6, ValueType.A);
-        msg.startBitAccess();
+        msg.startBitAccess(4 * 13 * 13 * 27);
 
         for (int z = 0; z < 4; z++) {
             for (int x = 0; x < 13; x++) {
@@ -766,20 +780,7 @@ public final class OutputMessages {
      */
     public OutputMessages sendProjectile(Position position, Position offset, int angle, int speed, int gfxMoving, int startHeight, int endHeight, int lockon, int time) {
         sendCoordinates(position);
-        MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(117);
-        msg.put(angle);
-        msg.put(offset.getY());
-        msg.put(offset.getX());
-        msg.putShort(lockon);
-        msg.putShort(gfxMoving);
-        msg.put(startHeight);
-        msg.put(endHeight);
-        msg.putShort(time);
-        msg.putShort(speed);
-        msg.put(16);
-        msg.put(64);
-        player.getSession().queue(msg);
+        player.getSession().queue(projectile(offset, angle, speed, gfxMoving, startHeight, endHeight, lockon, time));
         return this;
     }
 
@@ -809,8 +810,8 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public void sendAllProjectile(Position position, Position offset, int angle, int speed, int gfxMoving, int startHeight, int endHeight, int lockon, int time) {
-        player.getLocalPlayers().stream().filter(Objects::nonNull).forEach(
-            p -> p.getMessages().sendProjectile(position, offset, angle, speed, gfxMoving, startHeight, endHeight, lockon, time));
+        multicast(projectile(offset, angle, speed, gfxMoving, startHeight, endHeight, lockon, time), position, player.getLocalPlayers()
+            .stream());
     }
 
     /**
@@ -824,11 +825,13 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendByteState(int id, int state) {
+        if (!changeState(id, (byte) state))
+            return this;
         MessageBuilder msg = MessageBuilder.create();
         msg.newMessage(36);
         msg.putShort(id, ByteOrder.LITTLE);
         msg.put(state);
-        player.getSession().queue(msg);
+        player.getSession().queue(msg, 36, id);
         return this;
     }
 
@@ -843,11 +846,13 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendIntState(int id, int state) {
+        if (!changeState(id, state))
+            return this;
         MessageBuilder msg = MessageBuilder.create();
         msg.newMessage(87);
         msg.putShort(id, ByteOrder.LITTLE);
         msg.putInt(state, ByteOrder.MIDDLE);
-        player.getSession().queue(msg);
+        player.getSession().queue(msg, 87, id);
         return this;
     }
 
@@ -860,15 +865,22 @@ public final class OutputMessages {
      */
     public OutputMessages sendObject(ObjectNode object) {
         sendCoordinates(object.getPosition());
-        MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(151);
-        msg.put(0, ValueType.S);
-        msg.putShort(object.getId(), ByteOrder.LITTLE);
-        msg.put((object.getObjectType().getId() << 2) + (object.getDirection().getId() & 3), ValueType.S);
-        player.getSession().queue(msg);
+        player.getSession().queue(object(object));
         return this;
     }
 
+    /**
+     * The message that spawns an object that all players within viewing
+     * distance of it can see.
+     *
+     * @param object
+     *            the object to spawn.
+     */
+    public static void sendAllObject(ObjectNode object) {
+        multicast(object(object), object.getPosition(), World.getPlayers().stream().filter(
+            p -> object.getPosition().withinDistance(p.getPosition(), 60)));
+    }
+
     /**
      * The message that removes an object only the underlying player can see.
      *
@@ -878,14 +890,20 @@ public final class OutputMessages {
      */
     public OutputMessages sendRemoveObject(Position position) {
         sendCoordinates(position);
-        MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(101);
-        msg.put((ObjectType.DEFAULT.getId() << 2) + (ObjectDirection.SOUTH.getId() & 3), ValueType.C);
-        msg.put(0);
-        player.getSession().queue(msg);
+        player.getSession().queue(removeObject());
         return this;
     }
 
+    /**
+     * The message that removes an object for all players.
+     *
+     * @param position
+     *            the position of the object to remove.
+     */
+    public static void sendAllRemoveObject(Position position) {
+        multicast(removeObject(), position, World.getPlayers().stream());
+    }
+
     /**
      * The messages that replace an existing object with a new one.
      *
@@ -916,7 +934,7 @@ public final class OutputMessages {
     public OutputMessages sendSkill(int id, int level, int exp) {
         MessageBuilder msg = MessageBuilder.create();
         msg.newMessage(134).put(id).putInt(exp, ByteOrder.MIDDLE).put(level);
-        player.getSession().queue(msg);
+        player.getSession().queue(msg, 134, id);
         return this;
     }
 
@@ -1078,6 +1096,9 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendWalkable(int id) {
+        if (walkable != null && walkable == id)
+            return this;
+        walkable = id;
         MessageBuilder msg = MessageBuilder.create();
         msg.newMessage(208);
         msg.putShort(id, ByteOrder.LITTLE);
@@ -1150,12 +1171,14 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendString(String text, int id) {
+        if (text.equals(strings.put(id, text)))
+            return this;
         MessageBuilder msg = MessageBuilder.create();
         msg.newVarShortMessage(126);
         msg.putString(text);
         msg.putShort(id, ValueType.A);
         msg.endVarShortMessage();
-        player.getSession().queue(msg);
+        player.getSession().queue(msg, 126, id);
         return this;
     }
 
@@ -1201,14 +1224,20 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendMessage(String message) {
-        MessageBuilder msg = MessageBuilder.create();
-        msg.newVarMessage(253);
-        msg.putString(message);
-        msg.endVarMessage();
-        player.getSession().queue(msg);
+        player.getSession().queue(message(message));
         return this;
     }
 
+    /**
+     * The message that sends {@code message} to the chatbox of all players.
+     *
+     * @param message
+     *            the message to send.
+     */
+    public static void sendAllMessage(String message) {
+        multicast(message(message), World.getPlayers().stream());
+    }
+
     /**
      * The message that sends an interface to a certain sidebar.
      *
@@ -1284,4 +1313,223 @@ public final class OutputMessages {
         player.getSession().queue(msg);
         return this;
     }
+
+    /**
+     * Forgets the configuration states last sent to the client, so that the
+     * next state sent for every setting goes out. This must be done whenever
+     * the client could have changed a setting on its own, like when a button
+     * is clicked.
+     */
+    public void invalidateStates() {
+        states.clear();
+    }
+
+    /**
+     * Records {@code state} as the value of the {@code id} setting.
+     *
+     * @param id
+     *            the setting identification number.
+     * @param state
+     *            the value of the setting, in the form the client stores it.
+     * @return {@code true} if the value differs from the one last sent,
+     *         {@code false} otherwise.
+     */
+    private boolean changeState(int id, int state) {
+        Integer last = states.put(id, state);
+        return last == null || last != state;
+    }
+
+    /**
+     * Gets the underlying player followed by all of its local players.
+     *
+     * @return the stream of the underlying player and its local players.
+     */
+    private Stream<Player> localPlayers() {
+        return Stream.concat(Stream.of(player), player.getLocalPlayers().stream());
+    }
+
+    /**
+     * Queues {@code msg} for all of {@code recipients}. The message is encoded
+     * once and its content is shared between all of the recipients, only the
+     * opcode is encrypted for each of them. The message is released once it
+     * has been queued for every recipient, so it must not be used afterwards.
+     *
+     * @param msg
+     *            the message to queue.
+     * @param recipients
+     *            the players to queue the message for.
+     */
+    public static void multicast(MessageBuilder msg, Stream<Player> recipients) {
+        try {
+            recipients.forEach(p -> p.getSession().queue(msg.share()));
+        } finally {
+            msg.release();
+        }
+    }
+
+    /**
+     * Queues {@code msg} for all of {@code recipients} the same way as
+     * {@link #multicast(MessageBuilder, Stream)}, but places the message at
+     * {@code position} by sending each recipient the coordinates relative to
+     * their own region first.
+     *
+     * @param msg
+     *            the message to queue.
+     * @param position
+     *            the position the message is placed at.
+     * @param recipients
+     *            the players to queue the message for.
+     */
+    public static void multicast(MessageBuilder msg, Position position, Stream<Player> recipients) {
+        try {
+            recipients.forEach(p -> {
+                p.getMessages().sendCoordinates(position);
+                p.getSession().queue(msg.share());
+            });
+        } finally {
+            msg.release();
+        }
+    }
+
+    /**
+     * Builds the message that plays an animation for an object.
+     *
+     * @param animation
+     *            the animation to play for the object.
+     * @param type
+     *            the object type of the object.
+     * @param direction
+     *            the direction the object is facing.
+     * @return the built message.
+     */
+    private static MessageBuilder objectAnimation(int animation, ObjectType type, ObjectDirection direction) {
+        MessageBuilder msg = MessageBuilder.create();
+        msg.newMessage(160);
+        msg.put(((0 & 7) << 4) + (0 & 7), ValueType.S);
+        msg.put((type.getId() << 2) + (direction.getId() & 3), ValueType.S);
+        msg.putShort(animation, ValueType.A);
+        return msg;
+    }
+
+    /**
+     * Builds the message that creates a graphic.
+     *
+     * @param id
+     *            the id of the graphic.
+     * @param level
+     *            the height of the graphic.
+     * @return the built message.
+     */
+    private static MessageBuilder graphic(int id, int level) {
+        MessageBuilder msg = MessageBuilder.create();
+        msg.newMessage(4);
+        msg.put(0);
+        msg.putShort(id);
+        msg.put(level);
+        msg.putShort(0);
+        return msg;
+    }
+
+    /**
+     * Builds the message that plays a sound.
+     *
+     * @param id
+     *            the id of the sound.
+     * @param type
+     *            the type of the sound.
+     * @param delay
+     *            the delay before the sound is played.
+     * @return the built message.
+     */
+    private static MessageBuilder sound(int id, int type, int delay) {
+        MessageBuilder msg = MessageBuilder.create();
+        msg.newMessage(174);
+        msg.putShort(id);
+        msg.put(type);
+        msg.putShort(delay);
+        return msg;
+    }
+
+    /**
+     * Builds the message that launches a projectile.
+     *
+     * @param offset
+     *            the offset position of the projectile.
+     * @param angle
+     *            the angle of the projectile.
+     * @param speed
+     *            the speed of the projectile.
+     * @param gfxMoving
+     *            the rate that projectile gfx moves in.
+     * @param startHeight
+     *            the starting height of the projectile.
+     * @param endHeight
+     *            the ending height of the projectile.
+     * @param lockon
+     *            the lockon value of the projectile.
+     * @param time
+     *            the time it takes for the projectile to hit its desired
+     *            position.
+     * @return the built message.
+     */
+    private static MessageBuilder projectile(Position offset, int angle, int speed, int gfxMoving, int startHeight, int endHeight, int lockon, int time) {
+        MessageBuilder msg = MessageBuilder.create();
+        msg.newMessage(117);
+        msg.put(angle);
+        msg.put(offset.getY());
+        msg.put(offset.getX());
+        msg.putShort(lockon);
+        msg.putShort(gfxMoving);
+        msg.put(startHeight);
+        msg.put(endHeight);
+        msg.putShort(time);
+        msg.putShort(speed);
+        msg.put(16);
+        msg.put(64);
+        return msg;
+    }
+
+    /**
+     * Builds the message that spawns {@code object}.
+     *
+     * @param object
+     *            the object to spawn.
+     * @return the built message.
+     */
+    private static MessageBuilder object(ObjectNode object) {
+        MessageBuilder msg = MessageBuilder.create();
+        msg.newMessage(151);
+        msg.put(0, ValueType.S);
+        msg.putShort(object.getId(), ByteOrder.LITTLE);
+        msg.put((object.getObjectType().getId() << 2) + (object.getDirection().getId() & 3), ValueType.S);
+        return msg;
+    }
+
+    /**
+     * Builds the message that removes an object.
+     *
+     * @return the built message.
+     */
+    private static MessageBuilder removeObject() {
+        MessageBuilder msg = MessageBuilder.create();
+        msg.newMessage(101);
+        msg.put((ObjectType.DEFAULT.getId() << 2) + (ObjectDirection.SOUTH.getId() & 3), ValueType.C);
+        msg.put(0);
+        return msg;
+    }
+
+    /**
+     * Builds the message that sends {@code message} to the chatbox.
+     *
+     * @param message
+     *            the message to send.
+     * @return the built message.
+     */
+    private static MessageBuilder message(String message) {
+        MessageBuilder msg = MessageBuilder.create();
+        msg.newVarMessage(253);
+        msg.putString(message);
+        msg.endVarMessage();
+        return msg;
+    }
 }
@@ -25,6 +25,10 @@ public final class ClickButtonMessage implements InputMessageListener {
     @Override
     public void handleMessage(Player player, int opcode, int size, MessageBuilder payload) {
         int button = PROPER_READ ? payload.getShort() : BufferUtils.hexToInt(payload.getBytes(2));
+
+        // Toggle and select buttons change their setting on the client before
+        // this message is even sent.
+        player.getMessages().invalidateStates();
         World.getPlugins().execute(player, ButtonClickPlugin.class, new ButtonClickPlugin(button));
     }
 }
@@ -0,0 +1,50 @@
+package com.asteria.task;
+
+import java.util.Objects;
+
+/**
+ * A {@link Task} that is owned by a single character, and is executed in
+ * parallel with the tasks of other owners rather than serially on the main
+ * game thread. The tasks of a single owner are always executed on the same
+ * thread, in the order they are due.
+ * <p>
+ * <p>
+ * Owned tasks must only read and modify the state of their owner, and send
+ * messages to their owner. Tasks that are submitted, cancelled by key, or
+ * rescheduled while owned tasks are executing are deferred until every owned
+ * task has finished executing, any other global state should not be touched.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public abstract class OwnedTask extends Task {
+
+    /**
+     * The owner of this task.
+     */
+    private final Object owner;
+
+    /**
+     * Creates a new {@link OwnedTask}, attached to {@code owner}.
+     *
+     * @param owner
+     *            the owner of this task.
+     * @param delay
+     *            the delay for this task.
+     * @param instant
+     *            if this task executes when submitted.
+     */
+    public OwnedTask(Object owner, int delay, boolean instant) {
+        super(delay, instant);
+        this.owner = Objects.requireNonNull(owner);
+        attach(owner);
+    }
+
+    /**
+     * Gets the owner of this task.
+     *
+     * @return the owner.
+     */
+    public final Object getOwner() {
+        return owner;
+    }
+}
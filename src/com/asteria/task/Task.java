@@ -32,14 +32,10 @@ public abstract class Task {
     private int delay;
 
     /**
-     * The pause delay for this task.
+     * The pause delay for this task, only used to hold a pause requested before
+     * this task is submitted.
      */
-    private int pauseDelay;
-
-    /**
-     * The counter used for determining when this task executes.
-     */
-    private int counter;
+    int pauseDelay;
 
     /**
      * Determines if this task executes when submitted.
@@ -56,6 +52,58 @@ public abstract class Task {
      */
     private boolean running;
 
+    /**
+     * The task queue this task has been submitted to, or {@code null} if it has
+     * not been submitted.
+     */
+    TaskQueue queue;
+
+    /**
+     * The sequence this task's counter was last reset on.
+     */
+    long base;
+
+    /**
+     * The sequence this task is due on.
+     */
+    long due;
+
+    /**
+     * The sequence this task's pause expires on.
+     */
+    long pausedUntil;
+
+    /**
+     * The wheel this task is scheduled on, or {@code -1} if it is not
+     * scheduled.
+     */
+    int level = -1;
+
+    /**
+     * The bucket of the wheel this task is scheduled on.
+     */
+    int index;
+
+    /**
+     * The previous task in the bucket this task is scheduled on.
+     */
+    Task previous;
+
+    /**
+     * The next task in the bucket this task is scheduled on.
+     */
+    Task next;
+
+    /**
+     * The previous task attached to the same key as this task.
+     */
+    Task keyPrevious;
+
+    /**
+     * The next task attached to the same key as this task.
+     */
+    Task keyNext;
+
     /**
      * Creates a new {@link Task}.
      *
@@ -88,7 +136,8 @@ public abstract class Task {
     }
 
     /**
-     * The method executed every {@code 600}ms when this task is sequenced.
+     * The method executed when this task is sequenced, directly before it is
+     * executed. Tasks are only sequenced on the cycles they are due on.
      */
     public void onSequence() {
 
@@ -111,25 +160,6 @@ public abstract class Task {
 
     }
 
-    /**
-     * Determines if this task needs to be executed.
-     *
-     * @return {@code true} if this task needs to be executed, {@code false}
-     *         otherwise.
-     */
-    public final boolean needsExecute() {
-        if (pauseDelay > 0) {
-            pauseDelay--;
-            if (pauseDelay != 0)
-                return false;
-        }
-        if (++counter >= delay && running) {
-            counter = 0;
-            return true;
-        }
-        return false;
-    }
-
     /**
      * Cancels this task and executes the {@code onCancel()} method only if this
      * task is running.
@@ -137,6 +167,8 @@ public abstract class Task {
     public final void cancel() {
         if (running) {
             running = false;
+            if (queue != null)
+                queue.remove(this);
             onCancel();
         }
     }
@@ -149,9 +181,13 @@ public abstract class Task {
      *            the duration to pause this task for.
      */
     public final void pause(int duration) {
-        if (pauseDelay > 0)
+        if (queue == null ? pauseDelay > 0 : queue.isPaused(this))
             throw new IllegalStateException("This task is already paused!");
-        this.pauseDelay = duration;
+        if (queue == null) {
+            this.pauseDelay = duration;
+        } else {
+            queue.pause(this, duration);
+        }
     }
 
     /**
@@ -159,7 +195,8 @@ public abstract class Task {
      * {@code getKey()}. This is a very useful feature because similar or
      * related tasks can be bound with the same key, and can then be retrieved
      * or cancelled later on. All player related tasks should be bound with the
-     * player's instance so all tasks are automatically stopped on logout.
+     * player's instance so all tasks are automatically stopped on logout. Keys
+     * are compared by identity when tasks are cancelled by key.
      * <p>
      * <p>
      * Keys with a value of {@code null} are <b>not</b> permitted, the default
@@ -170,7 +207,10 @@ public abstract class Task {
      * @return an instance of this task.
      */
     public final Task attach(Object key) {
+        Object oldKey = this.key;
         this.key = Objects.requireNonNull(key);
+        if (queue != null)
+            queue.rekey(this, oldKey);
         return this;
     }
 
@@ -183,6 +223,17 @@ public abstract class Task {
     public final void newDelay(int delay) {
         Preconditions.checkArgument(delay >= 0);
         this.delay = delay;
+        if (queue != null)
+            queue.reschedule(this);
+    }
+
+    /**
+     * Gets the delay for this task.
+     *
+     * @return the delay.
+     */
+    public final int getDelay() {
+        return delay;
     }
 
     /**
@@ -1,11 +1,14 @@
 package com.asteria.task;
 
 import java.util.ArrayDeque;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import com.asteria.game.sync.GameSyncExecutor;
 import com.google.common.base.Preconditions;
 
 /**
@@ -13,6 +16,17 @@ import com.google.common.base.Preconditions;
  * makes sure tasks are stopped when requested and executed at the correct time.
  * <p>
  * <p>
+ * Tasks are scheduled on a hierarchical timing wheel, bucketed by the sequence
+ * they are next due on. Only the tasks that are due are touched every
+ * sequence, tasks due further in the future are held on the outer wheels and
+ * cascaded inwards as their sequence draws near.
+ * <p>
+ * <p>
+ * {@link OwnedTask}s that are due are not executed with the rest of the tasks,
+ * they are executed in parallel grouped by their owner when
+ * {@link #sequenceOwned(GameSyncExecutor)} is invoked.
+ * <p>
+ * <p>
  * The data structures that hold tasks for processing are not thread safe, which
  * means tasks should only be submitted on the main game thread.
  *
@@ -21,15 +35,77 @@ import com.google.common.base.Preconditions;
 public final class TaskQueue {
 
     /**
-     * The list that holds all of the pending tasks that are awaiting execution.
+     * The amount of bits used to index the buckets of a single wheel.
      */
-    private final List<Task> pendingTasks = new LinkedList<>();
+    private static final int WHEEL_BITS = 8;
+
+    /**
+     * The amount of buckets in a single wheel.
+     */
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    /**
+     * The mask used to index the buckets of a single wheel.
+     */
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /**
+     * The amount of wheels, each wheel covers {@code WHEEL_SIZE} times as many
+     * sequences as the wheel before it.
+     */
+    private static final int WHEEL_LEVELS = 4;
+
+    /**
+     * The furthest amount of sequences into the future a task can be scheduled.
+     */
+    private static final long MAXIMUM_DELTA = (1L << (WHEEL_BITS * WHEEL_LEVELS)) - 1;
+
+    /**
+     * The buckets of every wheel, each bucket is the head of an intrusive list
+     * of the tasks within it.
+     */
+    private final Task[][] wheels = new Task[WHEEL_LEVELS][WHEEL_SIZE];
+
+    /**
+     * The map of attachment keys to the head of an intrusive list of the tasks
+     * attached to them. Keys are compared by identity, and are removed as soon
+     * as the last task attached to them leaves this task handler.
+     */
+    private final Map<Object, Task> keys = new IdentityHashMap<>();
 
     /**
      * The queue that holds all of the tasks that are ready to be executed.
      */
     private final Queue<Task> runTasks = new ArrayDeque<>(50);
 
+    /**
+     * The list that holds all of the owned tasks that are ready to be executed.
+     */
+    private final List<OwnedTask> ownedRunTasks = new ArrayList<>();
+
+    /**
+     * The queue of operations on this task handler that were requested while
+     * owned tasks or a concurrent phase were executing, and were deferred until
+     * they completed.
+     */
+    private final Queue<Runnable> deferred = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Determines if owned tasks or a concurrent phase are currently being
+     * executed.
+     */
+    private volatile boolean concurrent;
+
+    /**
+     * The current sequence of this task handler.
+     */
+    private long tick;
+
+    /**
+     * The amount of tasks scheduled on the wheels.
+     */
+    private int size;
+
     /**
      * Queues pending tasks that are ready to be executed and executes tasks
      * that were previously queued.
@@ -38,28 +114,100 @@ public final class TaskQueue {
      *             if any errors occur while processing the tasks.
      */
     public void sequence() throws Exception {
-        Iterator<Task> $it = pendingTasks.iterator();
-        while ($it.hasNext()) {
-            Task t = $it.next();
-            t.onSequence();
-            if (t.needsExecute()) {
-                runTasks.add(t);
-            } else if (!t.isRunning()) {
-                $it.remove();
+        tick++;
+        cascade();
+
+        int index = (int) (tick & WHEEL_MASK);
+        Task t = wheels[0][index];
+        wheels[0][index] = null;
+        while (t != null) {
+            Task next = t.next;
+            t.level = -1;
+            t.previous = null;
+            t.next = null;
+            size--;
+            if (t.isRunning()) {
+                t.onSequence();
+                if (t.isRunning()) {
+                    t.base = tick;
+                    if (t instanceof OwnedTask) {
+                        ownedRunTasks.add((OwnedTask) t);
+                    } else {
+                        runTasks.add(t);
+                    }
+                }
             }
+            if (!t.isRunning())
+                release(t);
+            t = next;
         }
 
-        Task t;
         while ((t = runTasks.poll()) != null) {
-            try {
-                t.execute();
-            } catch (Throwable ex) {
-                ex.printStackTrace();
-                t.onThrowable(ex);
+            execute(t);
+            if (t.isRunning()) {
+                schedule(t);
+            } else {
+                release(t);
             }
         }
     }
 
+    /**
+     * Executes the owned tasks that were queued by the last call to
+     * {@code sequence()}. The tasks of each owner are executed in parallel with
+     * the tasks of other owners on {@code executor}, once they have all
+     * completed any operations that were deferred in the meantime are
+     * performed.
+     *
+     * @param executor
+     *            the executor the owned tasks will be executed on.
+     */
+    public void sequenceOwned(GameSyncExecutor executor) {
+        if (ownedRunTasks.isEmpty())
+            return;
+        Map<Object, List<OwnedTask>> owners = new IdentityHashMap<>();
+        for (OwnedTask t : ownedRunTasks)
+            owners.computeIfAbsent(t.getOwner(), it -> new ArrayList<>(2)).add(t);
+        List<Runnable> groups = new ArrayList<>(owners.size());
+        for (List<OwnedTask> group : owners.values())
+            groups.add(() -> group.forEach(TaskQueue::execute));
+
+        concurrent = true;
+        try {
+            executor.sync(groups);
+        } finally {
+            concurrent = false;
+        }
+
+        for (OwnedTask t : ownedRunTasks) {
+            if (t.isRunning()) {
+                schedule(t);
+            } else {
+                release(t);
+            }
+        }
+        ownedRunTasks.clear();
+        performDeferred();
+    }
+
+    /**
+     * Executes {@code phase}, which may submit or cancel tasks from several
+     * threads at once. Those operations are deferred while the phase is
+     * executing and performed on the calling thread once it has completed.
+     *
+     * @param phase
+     *            the phase to execute.
+     */
+    public void concurrently(Runnable phase) {
+        concurrent = true;
+        try {
+            phase.run();
+        } finally {
+            concurrent = false;
+        }
+        performDeferred();
+    }
+
     /**
      * Submits {@code task} to this task handler. The task must be running for
      * it to be successfully submitted.
@@ -68,21 +216,314 @@ public final class TaskQueue {
      *            the task to submit to this task handler.
      */
     public void submit(Task task) {
+        if (defer(() -> submit(task)))
+            return;
         Preconditions.checkArgument(task.isRunning());
+        Preconditions.checkState(task.queue == null, "This task has already been submitted!");
         task.onSubmit();
         if (task.isInstant())
             task.execute();
-        if (task.isRunning())
-            pendingTasks.add(task);
+        if (task.isRunning()) {
+            task.queue = this;
+            task.base = tick;
+            index(task);
+            if (task.pauseDelay > 0) {
+                pause(task, task.pauseDelay);
+                task.pauseDelay = 0;
+            }
+            schedule(task);
+        }
     }
 
     /**
-     * Cancels all tasks with {@code key} as their key attachment.
+     * Cancels all tasks with {@code key} as their key attachment. Keys are
+     * compared by identity, and only the tasks attached to {@code key} are
+     * visited, once each. Tasks that have already stopped but are still
+     * attached, because their removal was deferred, are removed right away.
      *
      * @param key
      *            the key to cancel all tasks with.
      */
     public void cancel(Object key) {
-        pendingTasks.stream().filter(t -> t.getKey().equals(key)).forEach(t -> t.cancel());
+        if (defer(() -> cancel(key)))
+            return;
+
+        // Take the tasks before cancelling any of them, cancelling a task can
+        // stop and release other tasks attached to the same key.
+        List<Task> attached = new ArrayList<>();
+        for (Task t = keys.get(key); t != null; t = t.keyNext)
+            attached.add(t);
+        for (Task t : attached) {
+            if (t.isRunning()) {
+                t.cancel();
+            } else {
+                remove(t);
+            }
+        }
+    }
+
+    /**
+     * Gets the current sequence of this task handler.
+     *
+     * @return the current sequence.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the amount of tasks that are scheduled on this task handler.
+     *
+     * @return the amount of scheduled tasks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Pauses {@code task} for {@code duration} sequences from the current
+     * sequence. The task's counter does not advance on any of the sequences
+     * before the pause expires.
+     *
+     * @param task
+     *            the task to pause.
+     * @param duration
+     *            the duration to pause the task for.
+     */
+    void pause(Task task, int duration) {
+        if (duration <= 0)
+            return;
+        task.pausedUntil = tick + duration;
+        task.base += duration - 1;
+        reschedule(task);
+    }
+
+    /**
+     * Determines if {@code task} is still paused on the current sequence.
+     *
+     * @param task
+     *            the task to determine this for.
+     * @return {@code true} if the task is paused, {@code false} otherwise.
+     */
+    boolean isPaused(Task task) {
+        return tick < task.pausedUntil;
+    }
+
+    /**
+     * Moves {@code task} to the bucket of the sequence it is now due on, does
+     * nothing if the task is currently being executed because it will be
+     * rescheduled once it completes.
+     *
+     * @param task
+     *            the task to reschedule.
+     */
+    void reschedule(Task task) {
+        if (task.level == -1 || defer(() -> reschedule(task)))
+            return;
+        unlink(task);
+        schedule(task);
+    }
+
+    /**
+     * Removes {@code task} from this task handler, used when the task is
+     * cancelled so it does not linger until its next sequence.
+     *
+     * @param task
+     *            the task to remove.
+     */
+    void remove(Task task) {
+        if (defer(() -> remove(task)))
+            return;
+        if (task.level != -1)
+            unlink(task);
+        release(task);
+    }
+
+    /**
+     * Moves {@code task} from the tasks attached to {@code oldKey} to the tasks
+     * attached to its current key.
+     *
+     * @param task
+     *            the task that has been attached to a new key.
+     * @param oldKey
+     *            the key the task was previously attached to.
+     */
+    void rekey(Task task, Object oldKey) {
+        if (defer(() -> rekey(task, oldKey)))
+            return;
+        unindex(task, oldKey);
+        index(task);
+    }
+
+    /**
+     * Defers {@code operation} until owned tasks or a concurrent phase have
+     * finished executing, if they are currently being executed.
+     *
+     * @param operation
+     *            the operation to defer.
+     * @return {@code true} if the operation was deferred, {@code false} if it
+     *         should be performed right away.
+     */
+    private boolean defer(Runnable operation) {
+        if (!concurrent)
+            return false;
+        deferred.add(operation);
+        return true;
+    }
+
+    /**
+     * Performs the operations that were deferred while owned tasks or a
+     * concurrent phase were executing, in the order they were requested.
+     */
+    private void performDeferred() {
+        Runnable operation;
+        while ((operation = deferred.poll()) != null)
+            operation.run();
+    }
+
+    /**
+     * Executes {@code task}, handling any errors thrown during its execution.
+     *
+     * @param task
+     *            the task to execute.
+     */
+    private static void execute(Task task) {
+        try {
+            task.execute();
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+            task.onThrowable(ex);
+        }
+    }
+
+    /**
+     * Releases {@code task} from this task handler once it has stopped
+     * running, removing it from the tasks attached to its key.
+     *
+     * @param task
+     *            the task to release.
+     */
+    private void release(Task task) {
+        if (task.queue != this)
+            return;
+        unindex(task, task.getKey());
+        task.queue = null;
+    }
+
+    /**
+     * Adds {@code task} to the head of the tasks attached to its key.
+     *
+     * @param task
+     *            the task to add.
+     */
+    private void index(Task task) {
+        Task head = keys.put(task.getKey(), task);
+        task.keyPrevious = null;
+        task.keyNext = head;
+        if (head != null)
+            head.keyPrevious = task;
+    }
+
+    /**
+     * Removes {@code task} from the tasks attached to {@code key}, removing the
+     * key altogether if no tasks are left attached to it.
+     *
+     * @param task
+     *            the task to remove.
+     * @param key
+     *            the key the task is attached to.
+     */
+    private void unindex(Task task, Object key) {
+        if (task.keyPrevious != null) {
+            task.keyPrevious.keyNext = task.keyNext;
+        } else if (task.keyNext != null) {
+            keys.put(key, task.keyNext);
+        } else {
+            keys.remove(key);
+        }
+        if (task.keyNext != null)
+            task.keyNext.keyPrevious = task.keyPrevious;
+        task.keyPrevious = null;
+        task.keyNext = null;
+    }
+
+    /**
+     * Schedules {@code task} on the bucket of the next sequence it is due on.
+     * Delays of {@code 0} are treated as a delay of {@code 1}.
+     *
+     * @param task
+     *            the task to schedule.
+     */
+    private void schedule(Task task) {
+        long due = Math.max(task.base + Math.max(task.getDelay(), 1), tick + 1);
+        insert(task, Math.max(due, task.pausedUntil));
+    }
+
+    /**
+     * Inserts {@code task} into the bucket of the wheel that covers the
+     * sequence {@code due}.
+     *
+     * @param task
+     *            the task to insert.
+     * @param due
+     *            the sequence the task is due on.
+     */
+    private void insert(Task task, long due) {
+        long delta = Math.min(due - tick, MAXIMUM_DELTA);
+        due = tick + delta;
+        int level = 0;
+        while (delta >= (1L << (WHEEL_BITS * (level + 1))))
+            level++;
+        int index = (int) ((due >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        Task head = wheels[level][index];
+        task.due = due;
+        task.level = level;
+        task.index = index;
+        task.previous = null;
+        task.next = head;
+        if (head != null)
+            head.previous = task;
+        wheels[level][index] = task;
+        size++;
+    }
+
+    /**
+     * Unlinks {@code task} from the bucket it is currently in.
+     *
+     * @param task
+     *            the task to unlink.
+     */
+    private void unlink(Task task) {
+        if (task.previous != null) {
+            task.previous.next = task.next;
+        } else {
+            wheels[task.level][task.index] = task.next;
+        }
+        if (task.next != null)
+            task.next.previous = task.previous;
+        task.level = -1;
+        task.previous = null;
+        task.next = null;
+        size--;
+    }
+
+    /**
+     * Moves the tasks on the outer wheels whose bucket has come up on this
+     * sequence inwards, towards the innermost wheel.
+     */
+    private void cascade() {
+        for (int level = 1; level < WHEEL_LEVELS; level++) {
+            if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) != 0)
+                break;
+            int index = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            Task t = wheels[level][index];
+            wheels[level][index] = null;
+            while (t != null) {
+                Task next = t.next;
+                size--;
+                insert(t, t.due);
+                t = next;
+            }
+        }
     }
 }
@@ -0,0 +1,181 @@
+package com.asteria.utility;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A histogram of latencies recorded into a fixed amount of log-linear buckets,
+ * in a similar fashion to {@code HdrHistogram}. Every power of two range is
+ * divided into {@code 16} equally sized sub-buckets which keeps the relative
+ * error of any reported percentile below roughly {@code 6%}, while recording a
+ * value never allocates anything.
+ * <p>
+ * <p>
+ * Values are recorded in {@link TimeUnit#MICROSECONDS} and any value greater
+ * than {@link LatencyHistogram#MAXIMUM_VALUE} is clamped. This class is
+ * synchronized so it can be queried from other threads while it is being
+ * recorded into.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The amount of bits used to describe the amount of sub-buckets.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The amount of sub-buckets values below the first power of two range are
+     * recorded into, values in this range are recorded exactly.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The amount of sub-buckets each power of two range is divided into.
+     */
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    /**
+     * The greatest value in microseconds that can be recorded.
+     */
+    public static final long MAXIMUM_VALUE = (1L << 31) - 1;
+
+    /**
+     * The amount of counts recorded into each bucket.
+     */
+    private final long[] counts = new long[index(MAXIMUM_VALUE) + 1];
+
+    /**
+     * The total amount of values recorded.
+     */
+    private long totalCount;
+
+    /**
+     * The sum of all recorded values.
+     */
+    private long totalValue;
+
+    /**
+     * The greatest value recorded.
+     */
+    private long maximumValue;
+
+    /**
+     * Records a latency of {@code nanos} in {@link TimeUnit#NANOSECONDS}.
+     *
+     * @param nanos
+     *            the latency to record.
+     */
+    public void recordNanos(long nanos) {
+        record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Records a latency of {@code micros} in {@link TimeUnit#MICROSECONDS}.
+     *
+     * @param micros
+     *            the latency to record.
+     */
+    public synchronized void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAXIMUM_VALUE));
+        counts[index(value)]++;
+        totalCount++;
+        totalValue += value;
+        if (value > maximumValue)
+            maximumValue = value;
+    }
+
+    /**
+     * Retrieves the value at {@code percentile} of all the recorded values, in
+     * {@link TimeUnit#MICROSECONDS}. The value returned is the highest value
+     * that is equivalent to the value within the bucket it was recorded into.
+     *
+     * @param percentile
+     *            the percentile to retrieve, from {@code 0} to {@code 100}.
+     * @return the value at the percentile, or {@code 0} if nothing has been
+     *         recorded.
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0)
+            return 0;
+        double fraction = Math.max(0, Math.min(percentile, 100)) / 100;
+        long target = Math.max(1, (long) Math.ceil(fraction * totalCount));
+        long count = 0;
+        for (int index = 0; index < counts.length; index++) {
+            count += counts[index];
+            if (count >= target)
+                return Math.min(highestEquivalentValue(index), maximumValue);
+        }
+        return maximumValue;
+    }
+
+    /**
+     * Retrieves the mean of all recorded values in
+     * {@link TimeUnit#MICROSECONDS}.
+     *
+     * @return the mean of the recorded values.
+     */
+    public synchronized long getMean() {
+        return totalCount == 0 ? 0 : totalValue / totalCount;
+    }
+
+    /**
+     * Gets the greatest value recorded in {@link TimeUnit#MICROSECONDS}.
+     *
+     * @return the greatest value recorded.
+     */
+    public synchronized long getMaximum() {
+        return maximumValue;
+    }
+
+    /**
+     * Gets the total amount of values recorded.
+     *
+     * @return the amount of values recorded.
+     */
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Discards all of the values recorded so far.
+     */
+    public synchronized void reset() {
+        for (int index = 0; index < counts.length; index++)
+            counts[index] = 0;
+        totalCount = 0;
+        totalValue = 0;
+        maximumValue = 0;
+    }
+
+    /**
+     * Determines the index of the bucket {@code value} is recorded into.
+     *
+     * @param value
+     *            the value to determine the bucket for.
+     * @return the index of the bucket.
+     */
+    private static int index(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+        int exponent = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> exponent) - SUB_BUCKET_HALF_COUNT;
+        return SUB_BUCKET_COUNT + ((exponent - 1) * SUB_BUCKET_HALF_COUNT) + subBucket;
+    }
+
+    /**
+     * Determines the highest value that will be recorded into the bucket at
+     * {@code index}.
+     *
+     * @param index
+     *            the index of the bucket.
+     * @return the highest value of the bucket.
+     */
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+        int exponent = ((index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT) + 1;
+        long subBucket = ((index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT) + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+}
@@ -1,5 +1,7 @@
 package com.asteria.utility;
 
+import java.util.Arrays;
+
 /**
  * The static-utility class that contains text utility functions.
  *
@@ -8,7 +10,7 @@ package com.asteria.utility;
 public final class TextUtils {
 
     /**
-     * The array of characters used for unpacking text.
+     * The array of characters used for packing and unpacking text.
      */
     public static final char CHARACTER_TABLE[] = { ' ', 'e', 't', 'a', 'o', 'i', 'h', 'n', 's', 'r', 'd', 'l', 'u', 'm', 'w', 'c', 'y',
             'f', 'g', 'p', 'b', 'v', 'k', 'x', 'j', 'q', 'z', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', ' ', '!', '?', '.', ',',
@@ -73,6 +75,54 @@ public final class TextUtils {
         return l;
     }
 
+    /**
+     * Packs {@code text} the same way the #317 client packs chat text. Each
+     * character is replaced by its index within {@link #CHARACTER_TABLE}, the
+     * most common characters taking up four bits and the rest twelve bits.
+     * Characters that are not within the table are packed as spaces, and only
+     * the first {@code 80} characters are packed.
+     *
+     * @param text
+     *            the text to pack.
+     * @return the packed text.
+     */
+    public static byte[] textPack(String text) {
+        if (text.length() > 80)
+            text = text.substring(0, 80);
+        text = text.toLowerCase();
+        byte[] packed = new byte[text.length() * 2];
+        int length = 0;
+        int carry = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int index = 0;
+            for (int j = 0; j < CHARACTER_TABLE.length; j++) {
+                if (c == CHARACTER_TABLE[j]) {
+                    index = j;
+                    break;
+                }
+            }
+            if (index > 12)
+                index += 195;
+            if (carry == -1) {
+                if (index < 13) {
+                    carry = index;
+                } else {
+                    packed[length++] = (byte) index;
+                }
+            } else if (index < 13) {
+                packed[length++] = (byte) ((carry << 4) + index);
+                carry = -1;
+            } else {
+                packed[length++] = (byte) ((carry << 4) + (index >> 4));
+                carry = index & 0xf;
+            }
+        }
+        if (carry != -1)
+            packed[length++] = (byte) (carry << 4);
+        return Arrays.copyOf(packed, length);
+    }
+
     /**
      * Determines the indefinite article of {@code thing}.
      *
@@ -5,6 +5,7 @@ import java.util.Objects;
 
 import com.asteria.net.NetworkConstants;
 import com.asteria.net.message.InputMessageListener;
+import com.asteria.net.message.MessagePriority;
 import com.asteria.utility.JsonLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
@@ -27,10 +28,13 @@ public final class MessageOpcodeLoader extends JsonLoader {
     public void load(JsonObject reader, Gson builder) {
         int[] opcodes = builder.fromJson(reader.get("opcodes").getAsJsonArray(), int[].class);
         String name = Objects.requireNonNull(reader.get("class").getAsString());
+        MessagePriority priority = reader.has("priority") ? MessagePriority.valueOf(reader.get("priority").getAsString())
+            : MessagePriority.NORMAL;
         boolean invalid = Arrays.stream(opcodes).anyMatch(op -> op < 0 || op > NetworkConstants.MESSAGES.length);
         if (invalid)
             throw new IllegalStateException("Invalid message opcode!");
         execute(opcodes, name);
+        Arrays.stream(opcodes).forEach(op -> NetworkConstants.MESSAGE_PRIORITIES[op] = priority);
     }
 
     /**